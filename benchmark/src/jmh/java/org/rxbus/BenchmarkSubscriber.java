@@ -0,0 +1,77 @@
+package org.rxbus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.greenrobot.eventbus.ThreadMode;
+
+/**
+ * The subscriber shared by all benchmarks, it listens the same events on RxBus, Otto and EventBus.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+public class BenchmarkSubscriber {
+    public static final int CODE = 100;
+    public static final int CODE_INT = 101;
+    public static final int CODE_ASYNC = 102;
+    public static final int CODE_ASYNC_COUNTER = 103;
+    public static final int CODE_NOP = 300;
+
+    private final AtomicInteger asyncCount = new AtomicInteger();
+    private long sum;
+
+    @Subscribe(code = CODE, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+    public void rx(String event) {
+        ++sum;
+    }
+
+    @Subscribe(code = CODE_INT, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+    public void rxInt(int event) {
+        sum += event;
+    }
+
+    @Subscribe(code = CODE_ASYNC, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD)
+    public void rxAsync(String event) {
+        asyncCount.incrementAndGet();
+    }
+
+    /** count to the counter of the producer, so concurrent producers can wait for their own events */
+    @Subscribe(code = CODE_ASYNC_COUNTER, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD)
+    public void rxAsyncCounter(AtomicInteger counter) {
+        counter.incrementAndGet();
+    }
+
+    @Subscribe(code = CODE_NOP, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+    public void rxNop(String event) {
+    }
+
+    @com.squareup.otto.Subscribe
+    public void otto(String event) {
+        ++sum;
+    }
+
+    @org.greenrobot.eventbus.Subscribe
+    public void eb(String event) {
+        ++sum;
+    }
+
+    @org.greenrobot.eventbus.Subscribe(threadMode = ThreadMode.BACKGROUND)
+    public void ebAsync(AsyncEvent event) {
+        asyncCount.incrementAndGet();
+    }
+
+    /** spin until the async handlers received the expect count of events, then consume them */
+    public void awaitAsync(int expect) {
+        while (asyncCount.get() < expect) {
+            Thread.yield();
+        }
+        asyncCount.addAndGet(-expect);
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    /** EventBus dispatch by event type, so the async baseline needs its own type */
+    public static final class AsyncEvent {
+    }
+}
@@ -0,0 +1,51 @@
+package org.rxbus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Latency of a single post by the bus options: generated index vs. reflection, parameters validation on or off.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class DeliveryBenchmark {
+    @Param({ "true", "false" })
+    public boolean useGeneratedIndex;
+
+    @Param({ "true", "false" })
+    public boolean validate;
+
+    private final RxBus rxBus = RxBus.singleInstance;
+    private final BenchmarkSubscriber subscriber = new BenchmarkSubscriber();
+
+    @Setup
+    public void setUp() {
+        rxBus.setUseGeneratedIndex(useGeneratedIndex);
+        rxBus.setValidateParametersMatches(validate);
+        rxBus.registerSync(subscriber);
+    }
+
+    @TearDown
+    public void tearDown() {
+        rxBus.unregisterSync(subscriber);
+        rxBus.setValidateParametersMatches(true);
+        rxBus.setUseGeneratedIndex(true);
+    }
+
+    @Benchmark
+    public void rxPost() {
+        rxBus.post(BenchmarkSubscriber.CODE, "Hello");
+    }
+}
@@ -0,0 +1,110 @@
+package org.rxbus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.greenrobot.eventbus.EventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.squareup.otto.Bus;
+import com.squareup.otto.ThreadEnforcer;
+
+/**
+ * Cost of one post which reach N synchronous subscribers,
+ * and cost of one post while N subscribers of other codes are registered.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FanoutBenchmark {
+    @State(Scope.Benchmark)
+    public static class Fanout {
+        @Param({ "1", "10", "100", "1000" })
+        public int subscribers;
+
+        private final RxBus rxBus = RxBus.singleInstance;
+        private final Bus ottoBus = new Bus(ThreadEnforcer.ANY);
+        private final EventBus eventBus = EventBus.builder().build();
+        private final List<BenchmarkSubscriber> subscriberList = new ArrayList<>();
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < subscribers; ++i) {
+                final BenchmarkSubscriber subscriber = new BenchmarkSubscriber();
+                rxBus.registerSync(subscriber);
+                ottoBus.register(subscriber);
+                eventBus.register(subscriber);
+                subscriberList.add(subscriber);
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            for (BenchmarkSubscriber subscriber : subscriberList) {
+                rxBus.unregisterSync(subscriber);
+                ottoBus.unregister(subscriber);
+                eventBus.unregister(subscriber);
+            }
+            subscriberList.clear();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Unrelated {
+        @Param({ "10", "100", "1000", "10000" })
+        public int unrelated;
+
+        private final RxBus rxBus = RxBus.singleInstance;
+        private final BenchmarkSubscriber subscriber = new BenchmarkSubscriber();
+        private final List<UnrelatedSubscriber> unrelatedList = new ArrayList<>();
+
+        @Setup
+        public void setUp() {
+            rxBus.registerSync(subscriber);
+            for (int i = 0; i < unrelated; ++i) {
+                final UnrelatedSubscriber unrelatedSubscriber = new UnrelatedSubscriber();
+                rxBus.registerSync(unrelatedSubscriber);
+                unrelatedList.add(unrelatedSubscriber);
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            for (UnrelatedSubscriber unrelatedSubscriber : unrelatedList) {
+                rxBus.unregisterSync(unrelatedSubscriber);
+            }
+            unrelatedList.clear();
+            rxBus.unregisterSync(subscriber);
+        }
+    }
+
+    @Benchmark
+    public void rxPost(Fanout fanout) {
+        fanout.rxBus.post(BenchmarkSubscriber.CODE, "Hello");
+    }
+
+    @Benchmark
+    public void ottoPost(Fanout fanout) {
+        fanout.ottoBus.post("Hello");
+    }
+
+    @Benchmark
+    public void eventBusPost(Fanout fanout) {
+        fanout.eventBus.post("Hello");
+    }
+
+    @Benchmark
+    public void rxPostWithUnrelated(Unrelated unrelated) {
+        unrelated.rxBus.post(BenchmarkSubscriber.CODE, "Hello");
+    }
+}
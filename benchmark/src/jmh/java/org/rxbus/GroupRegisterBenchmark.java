@@ -0,0 +1,71 @@
+package org.rxbus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.greenrobot.eventbus.EventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of register then unregister a group of subscribers, like the views, presenters and adapters of a screen
+ * on its create and destroy: one by one, by {@link RxBus#registerAll(java.util.Collection)} and by a scope.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class GroupRegisterBenchmark {
+    @Param({ "8", "32" })
+    public int groupSize;
+
+    private final RxBus rxBus = RxBus.builder().build();
+    private final EventBus eventBus = EventBus.builder().build();
+    private final List<BenchmarkSubscriber> subscribers = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < groupSize; ++i) {
+            subscribers.add(new BenchmarkSubscriber());
+        }
+    }
+
+    @Benchmark
+    public void rxOneByOne() {
+        for (BenchmarkSubscriber subscriber : subscribers) {
+            rxBus.register(subscriber);
+        }
+        for (BenchmarkSubscriber subscriber : subscribers) {
+            rxBus.unregister(subscriber);
+        }
+    }
+
+    @Benchmark
+    public void rxRegisterAll() {
+        rxBus.registerAll(subscribers);
+        rxBus.unregisterAll(subscribers);
+    }
+
+    @Benchmark
+    public void rxScope() {
+        rxBus.newScope().registerAll(subscribers).close();
+    }
+
+    @Benchmark
+    public void eventBusOneByOne() {
+        for (BenchmarkSubscriber subscriber : subscribers) {
+            eventBus.register(subscriber);
+        }
+        for (BenchmarkSubscriber subscriber : subscribers) {
+            eventBus.unregister(subscriber);
+        }
+    }
+}
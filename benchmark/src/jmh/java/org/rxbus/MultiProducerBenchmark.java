@@ -0,0 +1,145 @@
+package org.rxbus;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.greenrobot.eventbus.EventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Throughput of posts from 1 to 16 producer threads to one synchronous subscriber,
+ * and to one subscriber on the compute pool, which all producers enqueue to concurrently.
+ * The async ones post a burst and wait until the burst is delivered, so the queue can't grow without bound.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class MultiProducerBenchmark {
+    private static final int BURST = 100;
+
+    private final RxBus rxBus = RxBus.singleInstance;
+    private final EventBus eventBus = EventBus.builder().build();
+    private final BenchmarkSubscriber subscriber = new BenchmarkSubscriber();
+
+    @Setup
+    public void setUp() {
+        rxBus.registerSync(subscriber);
+        eventBus.register(subscriber);
+    }
+
+    @TearDown
+    public void tearDown() {
+        rxBus.unregisterSync(subscriber);
+        eventBus.unregister(subscriber);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void rxPost1() {
+        rxBus.post(BenchmarkSubscriber.CODE_NOP, "Hello");
+    }
+
+    @Benchmark
+    @Threads(2)
+    public void rxPost2() {
+        rxBus.post(BenchmarkSubscriber.CODE_NOP, "Hello");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void rxPost4() {
+        rxBus.post(BenchmarkSubscriber.CODE_NOP, "Hello");
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void rxPost8() {
+        rxBus.post(BenchmarkSubscriber.CODE_NOP, "Hello");
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void rxPost16() {
+        rxBus.post(BenchmarkSubscriber.CODE_NOP, "Hello");
+    }
+
+    /** the delivered count of the events posted by a producer thread */
+    @State(Scope.Thread)
+    public static class Producer {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        void postBurstAndWait(RxBus rxBus) {
+            for (int i = 0; i < BURST; ++i) {
+                rxBus.post(BenchmarkSubscriber.CODE_ASYNC_COUNTER, counter);
+            }
+            while (counter.get() < BURST) {
+                Thread.yield();
+            }
+            counter.addAndGet(-BURST);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(BURST)
+    public void rxPostAsync1(Producer producer) {
+        producer.postBurstAndWait(rxBus);
+    }
+
+    @Benchmark
+    @Threads(2)
+    @OperationsPerInvocation(BURST)
+    public void rxPostAsync2(Producer producer) {
+        producer.postBurstAndWait(rxBus);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(BURST)
+    public void rxPostAsync4(Producer producer) {
+        producer.postBurstAndWait(rxBus);
+    }
+
+    @Benchmark
+    @Threads(8)
+    @OperationsPerInvocation(BURST)
+    public void rxPostAsync8(Producer producer) {
+        producer.postBurstAndWait(rxBus);
+    }
+
+    @Benchmark
+    @Threads(16)
+    @OperationsPerInvocation(BURST)
+    public void rxPostAsync16(Producer producer) {
+        producer.postBurstAndWait(rxBus);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void eventBusPost1() {
+        eventBus.post("Hello");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void eventBusPost4() {
+        eventBus.post("Hello");
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void eventBusPost16() {
+        eventBus.post("Hello");
+    }
+}
@@ -0,0 +1,95 @@
+package org.rxbus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.greenrobot.eventbus.EventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.squareup.otto.Bus;
+import com.squareup.otto.ThreadEnforcer;
+
+/**
+ * Latency of a single post to one synchronous subscriber.
+ * Run with the gc profiler to see the allocation per post, e.g. primitive vs boxing.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class PostBenchmark {
+    private final RxBus rxBus = RxBus.singleInstance;
+    private final RxBus measuredBus = RxBus.builder().metricsListener(new RxBusMetrics()).build();
+    private final Bus ottoBus = new Bus(ThreadEnforcer.ANY);
+    private final EventBus eventBus = EventBus.builder().build();
+    private final BenchmarkSubscriber subscriber = new BenchmarkSubscriber();
+
+    @Setup
+    public void setUp() {
+        rxBus.registerSync(subscriber);
+        measuredBus.registerSync(subscriber);
+        ottoBus.register(subscriber);
+        eventBus.register(subscriber);
+    }
+
+    @TearDown
+    public void tearDown() {
+        rxBus.unregisterSync(subscriber);
+        measuredBus.unregisterSync(subscriber);
+        ottoBus.unregister(subscriber);
+        eventBus.unregister(subscriber);
+    }
+
+    @Benchmark
+    public void rxPost() {
+        rxBus.post(BenchmarkSubscriber.CODE, "Hello");
+    }
+
+    @Benchmark
+    public void rxPostWithType() {
+        rxBus.postWithType(BenchmarkSubscriber.CODE, String.class, "Hello");
+    }
+
+    @Benchmark
+    public void rxPostPrimitive() {
+        rxBus.post(BenchmarkSubscriber.CODE_INT, 1);
+    }
+
+    @Benchmark
+    public void rxPostBoxed() {
+        rxBus.post(BenchmarkSubscriber.CODE_INT, (Object) 1);
+    }
+
+    @Benchmark
+    public void rxPostNoSubscriber() {
+        rxBus.post(-1, "Hello");
+    }
+
+    /** the cost of {@link RxBusMetrics}, compare with {@link #rxPost()} */
+    @Benchmark
+    public void rxPostMeasured() {
+        measuredBus.post(BenchmarkSubscriber.CODE, "Hello");
+    }
+
+    @Benchmark
+    public void rxPostPrimitiveMeasured() {
+        measuredBus.post(BenchmarkSubscriber.CODE_INT, 1);
+    }
+
+    @Benchmark
+    public void ottoPost() {
+        ottoBus.post("Hello");
+    }
+
+    @Benchmark
+    public void eventBusPost() {
+        eventBus.post("Hello");
+    }
+}
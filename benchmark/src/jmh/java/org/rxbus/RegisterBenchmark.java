@@ -0,0 +1,107 @@
+package org.rxbus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.greenrobot.eventbus.EventBus;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.squareup.otto.Bus;
+import com.squareup.otto.ThreadEnforcer;
+
+/**
+ * Cost of register then unregister two subscribers of the same class.
+ * The subscribe entry cache hits and misses are reported as secondary results.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class RegisterBenchmark {
+    private final BenchmarkSubscriber subscriber1 = new BenchmarkSubscriber();
+    private final BenchmarkSubscriber subscriber2 = new BenchmarkSubscriber();
+
+    @State(Scope.Benchmark)
+    public static class Rx {
+        @Param({ "true", "false" })
+        public boolean useGeneratedIndex;
+
+        private final RxBus rxBus = RxBus.singleInstance;
+
+        @Setup
+        public void setUp() {
+            rxBus.setUseGeneratedIndex(useGeneratedIndex);
+        }
+
+        @TearDown
+        public void tearDown() {
+            rxBus.setUseGeneratedIndex(true);
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class CacheCounters {
+        public long cacheHits;
+        public long cacheMisses;
+
+        private long hitCount;
+        private long missCount;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            hitCount = RxBus.singleInstance.getCacheHitCount();
+            missCount = RxBus.singleInstance.getCacheMissCount();
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            cacheHits = RxBus.singleInstance.getCacheHitCount() - hitCount;
+            cacheMisses = RxBus.singleInstance.getCacheMissCount() - missCount;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Otto {
+        private final Bus ottoBus = new Bus(ThreadEnforcer.ANY);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Eb {
+        private final EventBus eventBus = EventBus.builder().build();
+    }
+
+    @Benchmark
+    public void rxRegisterUnregister(Rx rx, CacheCounters counters) {
+        rx.rxBus.register(subscriber1);
+        rx.rxBus.register(subscriber2);
+        rx.rxBus.unregister(subscriber1);
+        rx.rxBus.unregister(subscriber2);
+    }
+
+    @Benchmark
+    public void ottoRegisterUnregister(Otto otto) {
+        otto.ottoBus.register(subscriber1);
+        otto.ottoBus.register(subscriber2);
+        otto.ottoBus.unregister(subscriber1);
+        otto.ottoBus.unregister(subscriber2);
+    }
+
+    @Benchmark
+    public void eventBusRegisterUnregister(Eb eb) {
+        eb.eventBus.register(subscriber1);
+        eb.eventBus.register(subscriber2);
+        eb.eventBus.unregister(subscriber1);
+        eb.eventBus.unregister(subscriber2);
+    }
+}
@@ -0,0 +1,84 @@
+package org.rxbus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.greenrobot.eventbus.EventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Cost of a burst of posts until all of them are delivered, on the posting thread vs. on a pool thread.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SchedulerBenchmark {
+    @Param({ "1", "100", "1000" })
+    public int burst;
+
+    private final RxBus rxBus = RxBus.singleInstance;
+    private final EventBus eventBus = EventBus.builder().build();
+    private final BenchmarkSubscriber subscriber = new BenchmarkSubscriber();
+    private final BenchmarkSubscriber.AsyncEvent asyncEvent = new BenchmarkSubscriber.AsyncEvent();
+
+    @Setup
+    public void setUp() {
+        rxBus.registerSync(subscriber);
+        eventBus.register(subscriber);
+    }
+
+    @TearDown
+    public void tearDown() {
+        rxBus.unregisterSync(subscriber);
+        eventBus.unregister(subscriber);
+    }
+
+    @Benchmark
+    public void rxSync() {
+        for (int i = 0; i < burst; ++i) {
+            rxBus.post(BenchmarkSubscriber.CODE, "Hello");
+        }
+    }
+
+    @Benchmark
+    public void rxAsync() {
+        for (int i = 0; i < burst; ++i) {
+            rxBus.post(BenchmarkSubscriber.CODE_ASYNC, "Hello");
+        }
+        subscriber.awaitAsync(burst);
+    }
+
+    @Benchmark
+    public void rxAsyncBatch() {
+        final RxBus.Batch batch = rxBus.beginBatch();
+        for (int i = 0; i < burst; ++i) {
+            batch.post(BenchmarkSubscriber.CODE_ASYNC, "Hello");
+        }
+        batch.commit();
+        subscriber.awaitAsync(burst);
+    }
+
+    @Benchmark
+    public void eventBusSync() {
+        for (int i = 0; i < burst; ++i) {
+            eventBus.post("Hello");
+        }
+    }
+
+    @Benchmark
+    public void eventBusAsync() {
+        for (int i = 0; i < burst; ++i) {
+            eventBus.post(asyncEvent);
+        }
+        subscriber.awaitAsync(burst);
+    }
+}
@@ -0,0 +1,14 @@
+package org.rxbus;
+
+/**
+ * A subscriber of a code which is never posted by the benchmarks, it only grows the dispatch table.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+public class UnrelatedSubscriber {
+    public static final int CODE = 200;
+
+    @Subscribe(code = CODE, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+    public void rx(String event) {
+    }
+}
@@ -0,0 +1,307 @@
+package org.rxbus.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generate a {@code <subscriber class name>_RxBusIndex} class for each class which declared
+ * {@code org.rxbus.Subscribe} methods, so RxBus can register and call target callback methods without reflection.
+ * Private methods are indexed without invoker; private, local or anonymous classes are left to reflection.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+public class RxBusProcessor extends AbstractProcessor {
+    static final String SUBSCRIBE = "org.rxbus.Subscribe";
+    static final String CLASS_NAME_SUFFIX = "_RxBusIndex";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(SUBSCRIBE);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            final Map<TypeElement, List<ExecutableElement>> methodsMap = new LinkedHashMap<>();
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.METHOD) {
+                    continue;
+                }
+                final TypeElement typeElement = (TypeElement) element.getEnclosingElement();
+                if (!isAccessible(typeElement)) {
+                    continue;
+                }
+                List<ExecutableElement> methods = methodsMap.get(typeElement);
+                if (methods == null) {
+                    methods = new ArrayList<>();
+                    methodsMap.put(typeElement, methods);
+                }
+                methods.add((ExecutableElement) element);
+            }
+            for (Map.Entry<TypeElement, List<ExecutableElement>> entry : methodsMap.entrySet()) {
+                if (!isIndexable(entry.getValue())) {
+                    continue;
+                }
+                try {
+                    writeIndex(entry.getKey(), entry.getValue());
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "Unable to write RxBus index: " + e.getMessage(), entry.getKey());
+                }
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex(TypeElement typeElement, List<ExecutableElement> methods) throws IOException {
+        final String packageName = getPackageName(typeElement);
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(typeElement).toString();
+        final String simpleName = (packageName.isEmpty() ? binaryName
+                : binaryName.substring(packageName.length() + 1)) + CLASS_NAME_SUFFIX;
+        final StringBuilder sb = new StringBuilder();
+        sb.append("// Generated code from RxBus. Do not modify!\n");
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        sb.append("public final class ").append(simpleName).append(" implements org.rxbus.SubscriberIndex {\n");
+        sb.append("    @Override\n");
+        sb.append("    public org.rxbus.SubscriberMethod[] getSubscriberMethods() {\n");
+        sb.append("        return new org.rxbus.SubscriberMethod[] {\n");
+        for (ExecutableElement method : methods) {
+            appendSubscriberMethod(sb, typeElement, method);
+        }
+        sb.append("        };\n");
+        sb.append("    }\n");
+        sb.append("}\n");
+        final String className = packageName.isEmpty() ? simpleName : packageName + '.' + simpleName;
+        final JavaFileObject file = processingEnv.getFiler().createSourceFile(className, typeElement);
+        try (Writer writer = file.openWriter()) {
+            writer.write(sb.toString());
+        }
+    }
+
+    private void appendSubscriberMethod(StringBuilder sb, TypeElement typeElement, ExecutableElement method) {
+        final List<? extends VariableElement> parameters = method.getParameters();
+        sb.append("            new org.rxbus.SubscriberMethod(\"").append(method.getSimpleName()).append("\", ");
+        sb.append("new Class<?>[] {");
+        for (int i = 0; i < parameters.size(); ++i) {
+            sb.append(i > 0 ? ", " : " ").append(erasure(parameters.get(i).asType())).append(".class");
+        }
+        sb.append(parameters.isEmpty() ? "},\n" : " },\n");
+        appendSubscribe(sb, method);
+        if (method.getModifiers().contains(Modifier.PRIVATE)) {
+            sb.append("                null),\n");
+            return;
+        }
+        sb.append("                new org.rxbus.Invoker() {\n");
+        sb.append("                    @Override\n");
+        sb.append("                    public void invoke(Object subscriber, Object[] parameters)");
+        sb.append(" throws Exception {\n");
+        appendCall(sb, typeElement, method);
+        for (int i = 0; i < parameters.size(); ++i) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            appendArgument(sb, parameters.get(i).asType(), "parameters[" + i + "]");
+        }
+        sb.append(");\n");
+        sb.append("                    }\n");
+        if (parameters.size() == 1) {
+            appendPrimitiveInvoke(sb, typeElement, method, parameters.get(0).asType());
+        }
+        sb.append("                }),\n");
+    }
+
+    /** override the Invoker#invoke(Object, primitive) which match the only parameter, so no boxing */
+    private void appendPrimitiveInvoke(StringBuilder sb, TypeElement typeElement, ExecutableElement method,
+                                       TypeMirror type) {
+        switch (type.getKind()) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+            case BOOLEAN:
+                sb.append("                    @Override\n");
+                sb.append("                    public void invoke(Object subscriber, ").append(type);
+                sb.append(" value) throws Exception {\n");
+                appendCall(sb, typeElement, method);
+                sb.append("value);\n");
+                sb.append("                    }\n");
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void appendCall(StringBuilder sb, TypeElement typeElement, ExecutableElement method) {
+        sb.append("                        ");
+        if (method.getModifiers().contains(Modifier.STATIC)) {
+            sb.append(erasure(typeElement.asType()));
+        } else {
+            sb.append("((").append(erasure(typeElement.asType())).append(") subscriber)");
+        }
+        sb.append('.').append(method.getSimpleName()).append('(');
+    }
+
+    /** implement the annotation interface with the values (include defaults) declared on the method */
+    private void appendSubscribe(StringBuilder sb, ExecutableElement method) {
+        sb.append("                new org.rxbus.Subscribe() {\n");
+        for (AnnotationMirror annotationMirror : method.getAnnotationMirrors()) {
+            final TypeElement annotationElement = (TypeElement) annotationMirror.getAnnotationType().asElement();
+            if (!annotationElement.getQualifiedName().contentEquals(SUBSCRIBE)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : processingEnv.getElementUtils().getElementValuesWithDefaults(annotationMirror).entrySet()) {
+                final TypeMirror returnType = entry.getKey().getReturnType();
+                sb.append("                    @Override\n");
+                sb.append("                    public ").append(erasure(returnType)).append(' ');
+                sb.append(entry.getKey().getSimpleName()).append("() {\n");
+                sb.append("                        return ").append(valueOf(entry.getValue(), returnType));
+                sb.append(";\n");
+                sb.append("                    }\n");
+            }
+        }
+        sb.append("                    @Override\n");
+        sb.append("                    public Class<? extends java.lang.annotation.Annotation> annotationType() {\n");
+        sb.append("                        return org.rxbus.Subscribe.class;\n");
+        sb.append("                    }\n");
+        sb.append("                },\n");
+    }
+
+    private String valueOf(AnnotationValue annotationValue, TypeMirror type) {
+        final Object value = annotationValue.getValue();
+        if (!(value instanceof List)) {
+            return annotationValue.toString();
+        }
+        final StringBuilder sb = new StringBuilder("new ").append(erasure(type)).append(" {");
+        final List<?> values = (List<?>) value;
+        for (int i = 0; i < values.size(); ++i) {
+            sb.append(i > 0 ? ", " : " ").append(values.get(i));
+        }
+        return sb.append(values.isEmpty() ? "}" : " }").toString();
+    }
+
+    private void appendArgument(StringBuilder sb, TypeMirror type, String argument) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                sb.append("(Boolean) ").append(argument);
+                break;
+            case BYTE:
+                sb.append("(Byte) ").append(argument);
+                break;
+            case CHAR:
+                sb.append("(Character) ").append(argument);
+                break;
+            case SHORT:
+                sb.append("toShort(").append(argument).append(')');
+                break;
+            case INT:
+                sb.append("toInt(").append(argument).append(')');
+                break;
+            case LONG:
+                sb.append("toLong(").append(argument).append(')');
+                break;
+            case FLOAT:
+                sb.append("toFloat(").append(argument).append(')');
+                break;
+            case DOUBLE:
+                sb.append("toDouble(").append(argument).append(')');
+                break;
+            default:
+                sb.append('(').append(erasure(type)).append(") ").append(argument);
+                break;
+        }
+    }
+
+    /** the generated code must see all parameter types, or else leave the whole class to reflection */
+    private boolean isIndexable(List<ExecutableElement> methods) {
+        for (ExecutableElement method : methods) {
+            for (VariableElement parameter : method.getParameters()) {
+                if (!isAccessible(parameter.asType())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isAccessible(TypeMirror type) {
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isAccessible(((ArrayType) type).getComponentType());
+        }
+        if (type.getKind() == TypeKind.DECLARED) {
+            return isAccessible((TypeElement) ((DeclaredType) type).asElement());
+        }
+        if (type.getKind() == TypeKind.TYPEVAR) {
+            return isAccessible(processingEnv.getTypeUtils().erasure(type));
+        }
+        return type.getKind().isPrimitive();
+    }
+
+    private static boolean isAccessible(TypeElement typeElement) {
+        Element element = typeElement;
+        while (element instanceof TypeElement) {
+            final TypeElement type = (TypeElement) element;
+            if (type.getModifiers().contains(Modifier.PRIVATE)
+                    || type.getNestingKind() == NestingKind.LOCAL
+                    || type.getNestingKind() == NestingKind.ANONYMOUS) {
+                return false;
+            }
+            element = type.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private String erasure(TypeMirror type) {
+        final TypeMirror erasedType = processingEnv.getTypeUtils().erasure(type);
+        switch (erasedType.getKind()) {
+            case ARRAY:
+                return erasure(((ArrayType) erasedType).getComponentType()) + "[]";
+            case DECLARED:
+                return ((TypeElement) ((DeclaredType) erasedType).asElement()).getQualifiedName().toString();
+            default:
+                return erasedType.toString();
+        }
+    }
+
+    private static String getPackageName(TypeElement typeElement) {
+        Element element = typeElement;
+        while (!(element instanceof PackageElement)) {
+            element = element.getEnclosingElement();
+        }
+        return ((PackageElement) element).getQualifiedName().toString();
+    }
+}
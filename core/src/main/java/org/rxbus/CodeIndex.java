@@ -0,0 +1,241 @@
+package org.rxbus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A immutable index from primitive int code to a array of elements, a element is bound to exact codes
+ * or code ranges. A exact code is looked up in a {@link CodeTable} which already merged the elements of ranges
+ * covering the code, other codes are looked up by binary search on the elementary segments of all ranges.
+ * The elements of each code are sorted by the comparator when the index is written, so readers get them in order.
+ * Every write by a {@link Editor} returns a new index, so readers can use a snapshot without any lock.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+final class CodeIndex<E> {
+    private final E[] emptyArray;
+    /** null means keep the add order */
+    private final Comparator<? super E> comparator;
+    /** elements of exact codes only */
+    private final CodeTable<E> exactTable;
+    /** elements of exact codes and elements of ranges covering the codes */
+    private final CodeTable<E> mergedTable;
+    private final Range[] ranges;
+    /** sorted start of elementary segments, segment i is [starts[i], starts[i + 1]) */
+    private final long[] starts;
+    /** elements of each segment, null if no one */
+    private final Object[] segments;
+
+    /**
+     * create a empty index
+     * @param emptyArray a zero length array, decide the runtime type of element arrays
+     * @param comparator the order of elements of a code, null means keep the add order
+     */
+    CodeIndex(E[] emptyArray, Comparator<? super E> comparator) {
+        this(emptyArray, comparator, new CodeTable<>(emptyArray), new CodeTable<>(emptyArray), new Range[0],
+                new long[0], new Object[0]);
+    }
+
+    private CodeIndex(E[] emptyArray, Comparator<? super E> comparator, CodeTable<E> exactTable,
+                      CodeTable<E> mergedTable, Range[] ranges, long[] starts, Object[] segments) {
+        this.emptyArray = emptyArray;
+        this.comparator = comparator;
+        this.exactTable = exactTable;
+        this.mergedTable = mergedTable;
+        this.ranges = ranges;
+        this.starts = starts;
+        this.segments = segments;
+    }
+
+    /** @return the elements bound to the code, null if no one */
+    E[] get(int code) {
+        final E[] elements = mergedTable.get(code);
+        if (elements != null || segments.length == 0) {
+            return elements;
+        }
+        return getSegment(code);
+    }
+
+    /** @return a editor to write a new index, see {@link Editor} */
+    Editor edit() {
+        return new Editor();
+    }
+
+    /** split ranges into elementary segments, and merge them into the exact codes again */
+    @SuppressWarnings("unchecked")
+    private CodeIndex<E> rebuild(CodeTable<E> newExactTable, Range[] newRanges) {
+        final long[] points = new long[newRanges.length * 2];
+        for (int i = 0; i < newRanges.length; ++i) {
+            points[i * 2] = newRanges[i].from;
+            points[i * 2 + 1] = newRanges[i].to + 1L;
+        }
+        Arrays.sort(points);
+        int count = 0;
+        for (int i = 0; i < points.length; ++i) {
+            if (i == 0 || points[i] != points[i - 1]) {
+                points[count++] = points[i];
+            }
+        }
+        final long[] newStarts = Arrays.copyOf(points, count);
+        final Object[] newSegments = new Object[Math.max(count - 1, 0)];
+        final ArrayList<E> elements = new ArrayList<>();
+        for (int i = 0; i < newSegments.length; ++i) {
+            elements.clear();
+            for (Range range : newRanges) {
+                if (range.from <= newStarts[i] && range.to >= newStarts[i]) {
+                    elements.add((E) range.element);
+                }
+            }
+            newSegments[i] = elements.isEmpty() ? null : sort(elements.toArray(emptyArray));
+        }
+        final int[] codes = newExactTable.codes();
+        final Object[] mergedElements = new Object[codes.length];
+        for (int i = 0; i < codes.length; ++i) {
+            final E[] segment = (E[]) getSegment(newStarts, newSegments, codes[i]);
+            mergedElements[i] = merge(newExactTable.get(codes[i]), segment);
+        }
+        return new CodeIndex<>(emptyArray, comparator, newExactTable,
+                CodeTable.of(emptyArray, codes, mergedElements), newRanges, newStarts, newSegments);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E[] getSegment(int code) {
+        return (E[]) getSegment(starts, segments, code);
+    }
+
+    private static Object getSegment(long[] starts, Object[] segments, int code) {
+        int index = Arrays.binarySearch(starts, code);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        if (index < 0 || index >= segments.length) {
+            return null;
+        }
+        return segments[index];
+    }
+
+    /** @return all elements sorted, the given arrays are never changed since older snapshots may read them */
+    private E[] merge(E[] first, E[] second) {
+        if (second == null) {
+            return comparator == null || first.length < 2 ? first : sort(first.clone());
+        }
+        final E[] elements = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, elements, first.length, second.length);
+        return sort(elements);
+    }
+
+    /** sort in place, the sort is stable, so the elements of equal order keep the add order */
+    private E[] sort(E[] elements) {
+        if (comparator != null && elements.length > 1) {
+            Arrays.sort(elements, comparator);
+        }
+        return elements;
+    }
+
+    /**
+     * collect writes to the index, and build the new index once on {@link #commit()}, so writing many elements
+     * copy the tables once rather than once per code. a editor is not thread safe, and the index is never changed
+     */
+    final class Editor {
+        /** the new exact elements of the written codes */
+        private final LinkedHashMap<Integer, E[]> exactMap = new LinkedHashMap<>();
+        private final ArrayList<Range> newRanges = new ArrayList<>(Arrays.asList(ranges));
+        private boolean rangesChanged;
+
+        Editor() {
+        }
+
+        /** append the element to the exact code */
+        Editor add(int code, E element) {
+            final E[] elements = getExact(code);
+            final E[] newElements = Arrays.copyOf(elements, elements.length + 1);
+            newElements[elements.length] = element;
+            exactMap.put(code, newElements);
+            return this;
+        }
+
+        /** remove the element (by identity) from the exact code if found */
+        Editor remove(int code, E element) {
+            final E[] elements = getExact(code);
+            for (int i = 0; i < elements.length; ++i) {
+                if (elements[i] == element) {
+                    final E[] newElements = Arrays.copyOf(elements, elements.length - 1);
+                    System.arraycopy(elements, i + 1, newElements, i, elements.length - i - 1);
+                    exactMap.put(code, newElements);
+                    break;
+                }
+            }
+            return this;
+        }
+
+        /** append the element to all codes in [from, to] */
+        Editor addRange(int from, int to, E element) {
+            if (from <= to) {
+                newRanges.add(new Range(from, to, element));
+                rangesChanged = true;
+            }
+            return this;
+        }
+
+        /** remove the element (by identity) from the range [from, to] if found */
+        Editor removeRange(int from, int to, E element) {
+            for (int i = 0; i < newRanges.size(); ++i) {
+                final Range range = newRanges.get(i);
+                if (range.element == element && range.from == from && range.to == to) {
+                    newRanges.remove(i);
+                    rangesChanged = true;
+                    break;
+                }
+            }
+            return this;
+        }
+
+        /** @return the new index with all writes, or the origin index if nothing written */
+        @SuppressWarnings("unchecked")
+        CodeIndex<E> commit() {
+            if (exactMap.isEmpty() && !rangesChanged) {
+                return CodeIndex.this;
+            }
+            final int[] codes = new int[exactMap.size()];
+            final Object[] elementsArray = new Object[codes.length];
+            int count = 0;
+            for (Map.Entry<Integer, E[]> entry : exactMap.entrySet()) {
+                codes[count] = entry.getKey();
+                elementsArray[count++] = entry.getValue();
+            }
+            final CodeTable<E> newExactTable = exactTable.putAll(codes, elementsArray);
+            if (rangesChanged) {
+                return rebuild(newExactTable, newRanges.toArray(new Range[newRanges.size()]));
+            }
+            for (int i = 0; i < codes.length; ++i) {
+                final E[] elements = (E[]) elementsArray[i];
+                elementsArray[i] = elements.length == 0 ? null : merge(elements, getSegment(codes[i]));
+            }
+            return new CodeIndex<>(emptyArray, comparator, newExactTable, mergedTable.putAll(codes, elementsArray),
+                    ranges, starts, segments);
+        }
+
+        private E[] getExact(int code) {
+            E[] elements = exactMap.get(code);
+            if (elements == null) {
+                elements = exactTable.get(code);
+            }
+            return elements != null ? elements : emptyArray;
+        }
+    }
+
+    private static final class Range {
+        final int from;
+        final int to;
+        final Object element;
+
+        Range(int from, int to, Object element) {
+            this.from = from;
+            this.to = to;
+            this.element = element;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.rxbus;
+
+import java.util.Arrays;
+
+/**
+ * A immutable open addressing map from primitive int code to a array of elements.
+ * Every write returns a new table, so readers can use a snapshot without any lock.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+final class CodeTable<E> {
+    private final E[] emptyArray;
+    private final int[] keys;
+    private final Object[] values;
+    private final int size;
+
+    /**
+     * create a empty table
+     * @param emptyArray a zero length array, decide the runtime type of element arrays
+     */
+    CodeTable(E[] emptyArray) {
+        this(emptyArray, new int[2], new Object[2], 0);
+    }
+
+    private CodeTable(E[] emptyArray, int[] keys, Object[] values, int size) {
+        this.emptyArray = emptyArray;
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+    }
+
+    /** @return the elements bound to the code, null if no one */
+    @SuppressWarnings("unchecked")
+    E[] get(int code) {
+        final int mask = keys.length - 1;
+        int index = mix(code) & mask;
+        Object value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == code) {
+                return (E[]) value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /** @return count of codes which has one element at least */
+    int size() {
+        return size;
+    }
+
+    /** @return all codes which has one element at least */
+    int[] codes() {
+        final int[] codes = new int[size];
+        int count = 0;
+        for (int i = 0; i < keys.length; ++i) {
+            if (values[i] != null) {
+                codes[count++] = keys[i];
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * create a table in one pass
+     * @param emptyArray see {@link #CodeTable(Object[])}
+     * @param codes distinct codes
+     * @param elementsArray non-empty element arrays of the codes, at the same index
+     */
+    static <E> CodeTable<E> of(E[] emptyArray, int[] codes, Object[] elementsArray) {
+        int capacity = 2;
+        while (capacity < codes.length * 2) {
+            capacity <<= 1;
+        }
+        final int[] keys = new int[capacity];
+        final Object[] values = new Object[capacity];
+        for (int i = 0; i < codes.length; ++i) {
+            insert(keys, values, codes[i], elementsArray[i]);
+        }
+        return new CodeTable<>(emptyArray, keys, values, codes.length);
+    }
+
+    /**
+     * @param codes distinct codes
+     * @param elementsArray element arrays of the codes at the same index, null or empty means remove the code
+     * @return a new table which bind all the element arrays to the codes, in one pass
+     */
+    CodeTable<E> putAll(int[] codes, Object[] elementsArray) {
+        int newSize = size;
+        for (int i = 0; i < codes.length; ++i) {
+            final boolean removal = isEmpty(elementsArray[i]);
+            final boolean exists = get(codes[i]) != null;
+            newSize += exists ? (removal ? -1 : 0) : (removal ? 0 : 1);
+        }
+        int capacity = 2;
+        while (capacity < newSize * 2) {
+            capacity <<= 1;
+        }
+        final int[] sortedCodes = codes.clone();
+        Arrays.sort(sortedCodes);
+        final int[] newKeys = new int[capacity];
+        final Object[] newValues = new Object[capacity];
+        for (int i = 0; i < keys.length; ++i) {
+            if (values[i] != null && Arrays.binarySearch(sortedCodes, keys[i]) < 0) {
+                insert(newKeys, newValues, keys[i], values[i]);
+            }
+        }
+        for (int i = 0; i < codes.length; ++i) {
+            if (!isEmpty(elementsArray[i])) {
+                insert(newKeys, newValues, codes[i], elementsArray[i]);
+            }
+        }
+        return new CodeTable<>(emptyArray, newKeys, newValues, newSize);
+    }
+
+    private static boolean isEmpty(Object elements) {
+        return elements == null || ((Object[]) elements).length == 0;
+    }
+
+    private static void insert(int[] keys, Object[] values, int code, Object value) {
+        final int mask = keys.length - 1;
+        int index = mix(code) & mask;
+        while (values[index] != null) {
+            index = (index + 1) & mask;
+        }
+        keys[index] = code;
+        values[index] = value;
+    }
+
+    private static int mix(int code) {
+        final int h = code * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
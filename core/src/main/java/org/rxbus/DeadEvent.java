@@ -0,0 +1,45 @@
+package org.rxbus;
+
+import java.util.Arrays;
+
+/**
+ * A posted event which no target callback method received, because no one subscribed the code,
+ * or the parameters don't match any of them, or the types and parameters of
+ * {@link RxBus#postWithType(int, Object...)} are not in pairs. See {@link RxBus.Builder#deadEvents(int)}.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+public final class DeadEvent {
+    private final int code;
+    private final Object[] events;
+    private final long timeMillis;
+
+    DeadEvent(int code, Object[] events) {
+        this.code = code;
+        this.events = events;
+        this.timeMillis = System.currentTimeMillis();
+    }
+
+    /** @return the event code */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @return the parameters as the target callback method would receive, without type info,
+     * or as posted if they are not in pairs; don't modify it
+     */
+    public Object[] getEvents() {
+        return events;
+    }
+
+    /** @return when it is posted, see {@link System#currentTimeMillis()} */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "DeadEvent{code=" + code + ", events=" + Arrays.toString(events) + ", timeMillis=" + timeMillis + '}';
+    }
+}
@@ -0,0 +1,83 @@
+package org.rxbus;
+
+/**
+ * Call a target callback method, one instance per {@code org.rxbus.Subscribe} method.
+ * The invokers generated with {@link SubscriberIndex} call the method directly, the others by reflection.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+public abstract class Invoker {
+    /**
+     * call the target callback method
+     * @param subscriber callback target
+     * @param parameters target callback method parameters
+     * @throws Exception anything thrown by the target callback method
+     */
+    public abstract void invoke(Object subscriber, Object[] parameters) throws Exception;
+
+    // the following methods call a target callback method which has one primitive parameter,
+    // the generated invokers override them to call without boxing, the default implementation boxing the value.
+
+    public void invoke(Object subscriber, int value) throws Exception {
+        invoke(subscriber, new Object[] { value });
+    }
+
+    public void invoke(Object subscriber, long value) throws Exception {
+        invoke(subscriber, new Object[] { value });
+    }
+
+    public void invoke(Object subscriber, float value) throws Exception {
+        invoke(subscriber, new Object[] { value });
+    }
+
+    public void invoke(Object subscriber, double value) throws Exception {
+        invoke(subscriber, new Object[] { value });
+    }
+
+    public void invoke(Object subscriber, boolean value) throws Exception {
+        invoke(subscriber, new Object[] { value });
+    }
+
+    // the following helpers apply the same widening conversion as java.lang.reflect.Method#invoke
+
+    protected static short toShort(Object value) {
+        if (value instanceof Short) {
+            return (Short) value;
+        }
+        if (value instanceof Byte) {
+            return (Byte) value;
+        }
+        throw new IllegalArgumentException("argument type mismatch");
+    }
+
+    protected static int toInt(Object value) {
+        if (value instanceof Integer) {
+            return (Integer) value;
+        }
+        if (value instanceof Character) {
+            return (Character) value;
+        }
+        return toShort(value);
+    }
+
+    protected static long toLong(Object value) {
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        return toInt(value);
+    }
+
+    protected static float toFloat(Object value) {
+        if (value instanceof Float) {
+            return (Float) value;
+        }
+        return toLong(value);
+    }
+
+    protected static double toDouble(Object value) {
+        if (value instanceof Double) {
+            return (Double) value;
+        }
+        return toFloat(value);
+    }
+}
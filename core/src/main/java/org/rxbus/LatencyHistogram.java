@@ -0,0 +1,114 @@
+package org.rxbus;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative long values (e.g. nanos) in the HdrHistogram style:
+ * each power of 2 is split into {@link #SUB_BUCKET_COUNT} linear sub buckets, so a value is recorded
+ * by a few bit operations without allocation, and the reported value is within about 3% of the recorded one.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /** values below SUB_BUCKET_COUNT map to itself, then one group of sub buckets per power of 2 */
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount;
+    private final AtomicLong totalValue;
+    private final AtomicLong maxValue;
+
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(BUCKET_COUNT);
+        totalCount = new AtomicLong();
+        totalValue = new AtomicLong();
+        maxValue = new AtomicLong();
+    }
+
+    /** @param value the value to record, negative is recorded as 0 */
+    public void record(long value) {
+        if (value < 0L) {
+            value = 0L;
+        }
+        counts.incrementAndGet(bucketOf(value));
+        totalCount.incrementAndGet();
+        totalValue.addAndGet(value);
+        long max;
+        while (value > (max = maxValue.get()) && !maxValue.compareAndSet(max, value)) {
+            // retry
+        }
+    }
+
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /** @return the exact max recorded value, 0 if empty */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /** @return the exact mean of recorded values, 0 if empty */
+    public double getMean() {
+        final long count = totalCount.get();
+        return count == 0L ? 0.0 : (double) totalValue.get() / count;
+    }
+
+    /**
+     * @param percentile in [0, 100], e.g. 99.9
+     * @return the highest value equivalent to the value at the percentile, never large than {@link #getMax()},
+     *         0 if empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        final long count = totalCount.get();
+        if (count == 0L) {
+            return 0L;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+        long seen = 0L;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /** clear all recorded values, the values recorded concurrently may be lost or kept partly */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            counts.set(i, 0L);
+        }
+        totalCount.set(0L);
+        totalValue.set(0L);
+        maxValue.set(0L);
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+    }
+
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        final int shift = (bucket >>> SUB_BUCKET_BITS) - 1;
+        final long subBucket = SUB_BUCKET_COUNT + (bucket & (SUB_BUCKET_COUNT - 1));
+        return ((subBucket + 1L) << shift) - 1L;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{count=" + getCount() + ", mean=" + getMean() + ", p50=" + getValueAtPercentile(50.0)
+                + ", p99=" + getValueAtPercentile(99.0) + ", max=" + getMax() + '}';
+    }
+}
@@ -0,0 +1,46 @@
+package org.rxbus;
+
+/**
+ * Receive the metrics of a bus on its hot path, set by {@link RxBus.Builder#metricsListener(MetricsListener)}.
+ * The callbacks run on the posting thread or the scheduler thread of the target callback method, so they must be
+ * thread safe, fast and never block. A bus without listener don't measure anything.
+ * The subscriber is identified by the signature of the target callback method, like
+ * {@code com.example.Foo#onBar(java.lang.String;)}, which is the same string instance for every callback.
+ * @see RxBusMetrics
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+public interface MetricsListener {
+    /** drop reason, the parameters don't match the target callback method, see validateParametersMatches */
+    int DROP_PARAMETERS_MISMATCH = 1;
+    /** drop reason, the target callback method is full, see {@link Subscribe#capacity()} */
+    int DROP_OVERFLOW = 2;
+
+    /**
+     * a event is posted
+     * @param code the event code
+     * @param receivers how many target callback methods the code bound to, 0 if no one
+     */
+    void onPost(int code, int receivers);
+
+    /**
+     * a target callback method returned or threw
+     * @param code the event code
+     * @param subscriber the signature of the target callback method
+     * @param nanos how long the target callback method run
+     * @param error the exception it threw, or null
+     */
+    void onInvoke(int code, String subscriber, long nanos, Throwable error);
+
+    /**
+     * a event to a target callback method is dropped
+     * @param reason see DROP_* in this interface
+     */
+    void onDrop(int code, String subscriber, int reason);
+
+    /**
+     * a event is queued to a target callback method on async scheduler
+     * @param depth how many events are pending for the target callback method (or its partition) now
+     */
+    void onQueueDepth(String subscriber, int depth);
+}
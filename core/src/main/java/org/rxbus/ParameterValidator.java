@@ -0,0 +1,107 @@
+package org.rxbus;
+
+/**
+ * Check the arguments of a message against the parameter types of a target callback method.
+ * Built once per {@code SubscribeEntry}, remember the last accepted argument class of each parameter,
+ * so a repeated post usually cost a length check and a reference compare per argument.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+final class ParameterValidator {
+    private static final Class<?>[] BOOLEAN_ACCEPTED = { Boolean.class };
+    private static final Class<?>[] BYTE_ACCEPTED = { Byte.class };
+    private static final Class<?>[] CHAR_ACCEPTED = { Character.class };
+    private static final Class<?>[] SHORT_ACCEPTED = { Short.class, Byte.class };
+    private static final Class<?>[] INT_ACCEPTED = { Integer.class, Character.class, Short.class, Byte.class };
+    private static final Class<?>[] LONG_ACCEPTED = { Long.class, Integer.class, Character.class, Short.class,
+            Byte.class };
+    private static final Class<?>[] FLOAT_ACCEPTED = { Float.class, Long.class, Integer.class, Character.class,
+            Short.class, Byte.class };
+    private static final Class<?>[] DOUBLE_ACCEPTED = { Double.class, Float.class, Long.class, Integer.class,
+            Character.class, Short.class, Byte.class };
+
+    private final Class<?>[] parameterTypes;
+    /** boxing classes which can unbox and widen to the primitive parameter, null for reference parameter */
+    private final Class<?>[][] acceptedBoxingClasses;
+    /** benign race: a stale read only cause a full check again */
+    private final Class<?>[] lastAcceptedClasses;
+
+    ParameterValidator(Class<?>[] parameterTypes) {
+        this.parameterTypes = parameterTypes;
+        this.acceptedBoxingClasses = new Class<?>[parameterTypes.length][];
+        this.lastAcceptedClasses = new Class<?>[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; ++i) {
+            acceptedBoxingClasses[i] = getAcceptedBoxingClasses(parameterTypes[i]);
+        }
+    }
+
+    /**
+     * @param arguments the arguments which will pass to target callback method
+     * @param typedParameters the parameters of {@code RxBus#postWithType(int, Object...)}, or null
+     * @return true if the target callback method can be called with the arguments
+     */
+    boolean validate(Object[] arguments, Object[] typedParameters) {
+        if (arguments == null || arguments.length != parameterTypes.length) {
+            return false;
+        }
+        for (int i = 0; i < arguments.length; ++i) {
+            if (typedParameters != null && !(typedParameters[i << 1] instanceof Class)) {
+                return false;
+            }
+            final Object argument = arguments[i];
+            if (argument == null) {
+                if (typedParameters == null) {
+                    return false;
+                }
+                if (!parameterTypes[i].isAssignableFrom((Class<?>) typedParameters[i << 1])) {
+                    return false;
+                }
+            } else {
+                final Class<?> argumentClass = argument.getClass();
+                if (argumentClass != lastAcceptedClasses[i]) {
+                    if (!accept(i, argumentClass)) {
+                        return false;
+                    }
+                    lastAcceptedClasses[i] = argumentClass;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean accept(int index, Class<?> argumentClass) {
+        final Class<?>[] acceptedClasses = acceptedBoxingClasses[index];
+        if (acceptedClasses == null) {
+            return parameterTypes[index].isAssignableFrom(argumentClass);
+        }
+        for (Class<?> acceptedClass : acceptedClasses) {
+            if (acceptedClass == argumentClass) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** same unboxing and widening conversion as java.lang.reflect.Method#invoke */
+    private static Class<?>[] getAcceptedBoxingClasses(Class<?> parameterType) {
+        if (!parameterType.isPrimitive()) {
+            return null;
+        } else if (parameterType == boolean.class) {
+            return BOOLEAN_ACCEPTED;
+        } else if (parameterType == byte.class) {
+            return BYTE_ACCEPTED;
+        } else if (parameterType == char.class) {
+            return CHAR_ACCEPTED;
+        } else if (parameterType == short.class) {
+            return SHORT_ACCEPTED;
+        } else if (parameterType == int.class) {
+            return INT_ACCEPTED;
+        } else if (parameterType == long.class) {
+            return LONG_ACCEPTED;
+        } else if (parameterType == float.class) {
+            return FLOAT_ACCEPTED;
+        } else {
+            return DOUBLE_ACCEPTED;
+        }
+    }
+}
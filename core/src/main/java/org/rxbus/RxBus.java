@@ -0,0 +1,1998 @@
+package org.rxbus;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import rx.Scheduler;
+import rx.functions.Action0;
+import rx.schedulers.Schedulers;
+
+/**
+ * A EventBus implements by RxJava, pure java, see AndroidRxBus in lib module for android.
+ * Use the default {@link #singleInstance}, or create isolated buses by {@link #builder()},
+ * each bus has its own receivers, scheduler bindings and lanes, so a busy bus don't slow down others.
+ * @author John Kenrinus Lee
+ * @version 2016-07-10
+ */
+public final class RxBus {
+    /** the default bus */
+    public static final RxBus singleInstance = new Builder().build();
+
+    private final int maxCachedSubscriberClasses;
+    private final int drainLimit;
+    private final Object receiverLock;
+    private volatile CodeIndex<Receiver> receiverIndex;
+    /** the register order of the last added receiver, guarded by receiverLock */
+    private long registerSequence;
+    private final ConcurrentHashMap<SubscriberKey, List<Receiver>> subscriberMap;
+    private final ReferenceQueue<Object> referenceQueue;
+    /** scheduler bindings of the bus, include custom ones and overridden builtin ones */
+    private final ConcurrentHashMap<Integer, Scheduler> customSchedulerMap;
+    private final ConcurrentHashMap<Integer, Lane> laneMap;
+    /** codes which all receivers conflate, see {@link Subscribe#conflate()} */
+    private final Set<Integer> conflateCodes;
+    /** the last sticky message of each code, see {@link #postSticky(int, Object...)} */
+    private final ConcurrentHashMap<Integer, Message> stickyMap;
+    private final AtomicLong droppedCount;
+    private final ThreadLocal<PostingState> postingState;
+    /** null means no metrics, so the hot path only pay a null check */
+    private final MetricsListener metricsListener;
+    /** 0 means no budget, see {@link Builder#slowHandlerBudget(long, TimeUnit)} */
+    private final long slowHandlerBudgetNanos;
+    private final SlowHandlerListener slowHandlerListener;
+    /** how many violations before a receiver moves to the fallback lane */
+    private final int maxSlowViolations;
+    /** the lane of isolated slow receivers, or null if not isolate them */
+    private final Lane fallbackLane;
+    /** if true, measure the run time of each target callback method */
+    private final boolean timing;
+    /** dead events per code, or null if not count them, see {@link Builder#deadEvents(int)} */
+    private final ConcurrentHashMap<Integer, AtomicLong> deadCounts;
+    /** the newest dead events, or null if not keep them */
+    private final ArrayBlockingQueue<DeadEvent> deadEvents;
+    /** run the timers of debounce and sample, created on first use */
+    private volatile Scheduler.Worker timerWorker;
+    /**
+     * resolved entries per subscriber class, guarded by itself.
+     * class key is weak and entries are soft (they reference the class), so the class can be unloaded.
+     */
+    private final WeakHashMap<Class<?>, SoftReference<SubscribeEntry[]>> subscribeEntryCache;
+    private long cacheHitCount;
+    private long cacheMissCount;
+    private boolean validateParametersMatches;
+    private boolean useGeneratedIndex;
+
+    private RxBus(Builder builder) {
+        maxCachedSubscriberClasses = builder.maxCachedSubscriberClasses;
+        drainLimit = builder.drainLimit;
+        receiverLock = new Object();
+        receiverIndex = new CodeIndex<>(new Receiver[0], new Comparator<Receiver>() {
+            @Override
+            public int compare(Receiver lhs, Receiver rhs) {
+                final int lhsPriority = lhs.entry.priority;
+                final int rhsPriority = rhs.entry.priority;
+                if (lhsPriority != rhsPriority) {
+                    return lhsPriority > rhsPriority ? -1 : 1;
+                }
+                return lhs.sequence < rhs.sequence ? -1 : (lhs.sequence == rhs.sequence ? 0 : 1);
+            }
+        });
+        subscriberMap = new ConcurrentHashMap<>();
+        referenceQueue = new ReferenceQueue<>();
+        customSchedulerMap = new ConcurrentHashMap<>(builder.schedulerMap);
+        laneMap = new ConcurrentHashMap<>();
+        conflateCodes = new HashSet<>(builder.conflateCodes);
+        stickyMap = new ConcurrentHashMap<>();
+        droppedCount = new AtomicLong();
+        postingState = new ThreadLocal<PostingState>() {
+            @Override
+            protected PostingState initialValue() {
+                return new PostingState();
+            }
+        };
+        metricsListener = builder.metricsListener != null
+                ? new GuardedMetricsListener(builder.metricsListener) : null;
+        slowHandlerBudgetNanos = builder.slowHandlerBudgetNanos;
+        slowHandlerListener = builder.slowHandlerListener;
+        maxSlowViolations = builder.maxSlowViolations;
+        fallbackLane = builder.fallbackExecutor != null ? new Lane(Schedulers.from(builder.fallbackExecutor),
+                Runtime.getRuntime().availableProcessors()) : null;
+        timing = metricsListener != null || slowHandlerBudgetNanos > 0L;
+        deadCounts = builder.deadEventCapacity >= 0 ? new ConcurrentHashMap<Integer, AtomicLong>() : null;
+        deadEvents = builder.deadEventCapacity > 0 ? new ArrayBlockingQueue<DeadEvent>(builder.deadEventCapacity)
+                : null;
+        subscribeEntryCache = new WeakHashMap<>();
+        validateParametersMatches = builder.validateParametersMatches;
+        useGeneratedIndex = builder.useGeneratedIndex;
+    }
+
+    /** @return a builder to create a new bus, which is isolated from {@link #singleInstance} and others */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** the builder of a isolated bus, see {@link RxBus#builder()} */
+    public static final class Builder {
+        private final Map<Integer, Scheduler> schedulerMap = new HashMap<>();
+        private final Set<Integer> conflateCodes = new HashSet<>();
+        private int maxCachedSubscriberClasses = 1024;
+        private int drainLimit = 64;
+        private boolean validateParametersMatches = true;
+        private boolean useGeneratedIndex = true;
+        private MetricsListener metricsListener;
+        private long slowHandlerBudgetNanos;
+        private SlowHandlerListener slowHandlerListener;
+        private int maxSlowViolations;
+        private Executor fallbackExecutor;
+        private int deadEventCapacity = -1;
+
+        Builder() {
+        }
+
+        /**
+         * bind a scheduler to a scheduler type code of this bus, can override the builtin ones
+         * except {@code Subscribe#SCHEDULER_CURRENT_THREAD}
+         * @param schedulerId the scheduler type code, see SCHEDULER_* in {@link Subscribe}
+         * @param scheduler the Scheduler, must not be null
+         */
+        public Builder scheduler(int schedulerId, Scheduler scheduler) {
+            if (schedulerId == Subscribe.SCHEDULER_CURRENT_THREAD || scheduler == null) {
+                throw new IllegalArgumentException("Can't bind scheduler " + scheduler + " to " + schedulerId);
+            }
+            schedulerMap.put(schedulerId, scheduler);
+            return this;
+        }
+
+        /** run the builtin new thread, io and compute schedulers of this bus on the executor */
+        public Builder executor(Executor executor) {
+            final Scheduler scheduler = Schedulers.from(executor);
+            scheduler(Subscribe.SCHEDULER_NEW_THREAD, scheduler);
+            scheduler(Subscribe.SCHEDULER_IO_POOL_THREAD, scheduler);
+            scheduler(Subscribe.SCHEDULER_COMPUTE_POOL_THREAD, scheduler);
+            return this;
+        }
+
+        /** all target callback methods of the codes on async scheduler conflate, see {@link Subscribe#conflate()} */
+        public Builder conflate(int...codes) {
+            for (int code : codes) {
+                conflateCodes.add(code);
+            }
+            return this;
+        }
+
+        /** how many subscriber classes keep their resolved subscribe entries, 1024 by default */
+        public Builder maxCachedSubscriberClasses(int maxCachedSubscriberClasses) {
+            if (maxCachedSubscriberClasses < 0) {
+                throw new IllegalArgumentException("maxCachedSubscriberClasses < 0");
+            }
+            this.maxCachedSubscriberClasses = maxCachedSubscriberClasses;
+            return this;
+        }
+
+        /** how many messages a receiver handle before yield its lane to other receivers, 64 by default */
+        public Builder drainLimit(int drainLimit) {
+            if (drainLimit <= 0) {
+                throw new IllegalArgumentException("drainLimit <= 0");
+            }
+            this.drainLimit = drainLimit;
+            return this;
+        }
+
+        /** @see RxBus#setValidateParametersMatches(boolean) */
+        public Builder validateParametersMatches(boolean validateParametersMatches) {
+            this.validateParametersMatches = validateParametersMatches;
+            return this;
+        }
+
+        /** @see RxBus#setUseGeneratedIndex(boolean) */
+        public Builder useGeneratedIndex(boolean useGeneratedIndex) {
+            this.useGeneratedIndex = useGeneratedIndex;
+            return this;
+        }
+
+        /** report the metrics of this bus to the listener, e.g. {@link RxBusMetrics}, null by default */
+        public Builder metricsListener(MetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
+        /**
+         * a target callback method which run longer than the budget is slow, it is reported to the
+         * {@link #slowHandlerListener(SlowHandlerListener)} and can be isolated by
+         * {@link #isolateSlowHandlers(int, Executor)}. the running method is never interrupted. 0 means no budget,
+         * by default
+         */
+        public Builder slowHandlerBudget(long budget, TimeUnit unit) {
+            if (budget < 0L) {
+                throw new IllegalArgumentException("budget < 0");
+            }
+            this.slowHandlerBudgetNanos = unit.toNanos(budget);
+            return this;
+        }
+
+        /** @see #slowHandlerBudget(long, TimeUnit) */
+        public Builder slowHandlerListener(SlowHandlerListener slowHandlerListener) {
+            this.slowHandlerListener = slowHandlerListener;
+            return this;
+        }
+
+        /**
+         * move a target callback method on async scheduler to the fallback executor after it is slow for the times,
+         * so it don't delay the others on its scheduler any more. it keep the order of its messages, and never move
+         * back. the fallback executor is shared by all isolated ones, and run them in parallel as its threads allow.
+         * a target callback method on {@code Subscribe#SCHEDULER_CURRENT_THREAD} is only reported.
+         * @see #slowHandlerBudget(long, TimeUnit)
+         */
+        public Builder isolateSlowHandlers(int maxViolations, Executor fallbackExecutor) {
+            if (maxViolations <= 0 || fallbackExecutor == null) {
+                throw new IllegalArgumentException("Can't isolate after " + maxViolations + " to " + fallbackExecutor);
+            }
+            this.maxSlowViolations = maxViolations;
+            this.fallbackExecutor = fallbackExecutor;
+            return this;
+        }
+
+        /**
+         * count the posted events which no target callback method received per code, and keep the newest of them
+         * for {@link RxBus#pollDeadEvent()}, the oldest one is discarded when there are more than the capacity.
+         * not count them by default
+         * @param capacity how many dead events to keep, 0 means only count them
+         */
+        public Builder deadEvents(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("capacity < 0");
+            }
+            this.deadEventCapacity = capacity;
+            return this;
+        }
+
+        public RxBus build() {
+            return new RxBus(this);
+        }
+    }
+
+    /** if set true, will check parameters before call target callback method. */
+    public void setValidateParametersMatches(boolean validateParametersMatches) {
+        this.validateParametersMatches = validateParametersMatches;
+    }
+
+    /**
+     * if set true, will find and call target callback methods by the {@link SubscriberIndex} generated
+     * at compile time when it exist, or else always by reflection. effect on subsequent register.
+     */
+    public void setUseGeneratedIndex(boolean useGeneratedIndex) {
+        this.useGeneratedIndex = useGeneratedIndex;
+        synchronized (subscribeEntryCache) {
+            subscribeEntryCache.clear();
+        }
+    }
+
+    /**
+     * add a custom scheduler use for {@code org.rxbus.Subscribe#scheduler()}
+     * @param schedulerId the custom scheduler type code
+     * @param scheduler the Scheduler, must not be null
+     */
+    public void addSchedulerWithId(int schedulerId, Scheduler scheduler) {
+        if (schedulerId >= Subscribe.SCHEDULER_FOR_FIRST_CUSTOM && scheduler != null) {
+            customSchedulerMap.put(schedulerId, scheduler);
+            laneMap.remove(schedulerId);
+        }
+    }
+
+    /**
+     * bind the scheduler use for {@code org.rxbus.Subscribe#SCHEDULER_MAIN_THREAD},
+     * the bus is platform independent, so the platform adapter (e.g. AndroidRxBus) should call it
+     * @param scheduler the main thread Scheduler, null means unbind
+     */
+    public void setMainThreadScheduler(Scheduler scheduler) {
+        if (scheduler != null) {
+            customSchedulerMap.put(Subscribe.SCHEDULER_MAIN_THREAD, scheduler);
+        } else {
+            customSchedulerMap.remove(Subscribe.SCHEDULER_MAIN_THREAD);
+        }
+        laneMap.remove(Subscribe.SCHEDULER_MAIN_THREAD);
+    }
+
+    /**
+     * remove a custom scheduler had used for {@code org.rxbus.Subscribe#scheduler()}
+     * @param schedulerId he custom scheduler type code
+     */
+    public Scheduler removeSchedulerWithId(int schedulerId) {
+        laneMap.remove(schedulerId);
+        return customSchedulerMap.remove(schedulerId);
+    }
+
+    /** @return how many messages of the bus had been dropped by the overflow policy, see Subscribe#capacity() */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @param subscriber the registered subscriber
+     * @return how many messages to the subscriber had been dropped by the overflow policy since it registered,
+     *         0 if it is not registered
+     */
+    public long getDroppedCount(Object subscriber) {
+        final List<Receiver> receivers = subscriberMap.get(new SubscriberKey(subscriber));
+        long count = 0L;
+        if (receivers != null) {
+            for (Receiver receiver : receivers) {
+                count += receiver.getDroppedCount();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return true if any target callback method subscribed the code, so a hot loop can skip building
+     *         the parameters of a event no one will receive. it don't check the parameters
+     */
+    public boolean hasSubscribers(int code) {
+        return receiverIndex.get(code) != null;
+    }
+
+    /**
+     * @return the oldest kept dead event and remove it, or null if no one or not kept
+     * @see Builder#deadEvents(int)
+     */
+    public DeadEvent pollDeadEvent() {
+        return deadEvents != null ? deadEvents.poll() : null;
+    }
+
+    /**
+     * @return how many posted events of the code no target callback method received, 0 if not counted
+     * @see Builder#deadEvents(int)
+     */
+    public long getDeadEventCount(int code) {
+        final AtomicLong count = deadCounts != null ? deadCounts.get(code) : null;
+        return count != null ? count.get() : 0L;
+    }
+
+    private void onDeadEvent(Message message) {
+        AtomicLong count = deadCounts.get(message.code);
+        if (count == null) {
+            final AtomicLong newCount = new AtomicLong();
+            count = deadCounts.putIfAbsent(message.code, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+        if (deadEvents != null) {
+            final DeadEvent deadEvent = new DeadEvent(message.code, message.arguments);
+            while (!deadEvents.offer(deadEvent)) {
+                deadEvents.poll();
+            }
+        }
+    }
+
+    /**
+     * post a event for no null parameter, if use null parameter, no any callback happened.
+     * note a single Integer, Long, Float, Double, Boolean, Byte, Short or Character argument bind to the primitive
+     * overload like {@link #post(int, int)} instead, which unbox it and throw NullPointerException if it is null,
+     * use {@link #postWithType(int, Object...)} for a nullable wrapper
+     * @param code event code or command code or a message type
+     * @param events target callback method parameters,
+     *               must ensure that any parameter cannot be null, like null, (Object[])null, (String)null
+     * @see #postWithType(int, Object...)
+     */
+    public void post(int code, Object...events) {
+        dispatch(code, false, events);
+    }
+
+    /**
+     * post a event with one int parameter, a target callback method on
+     * {@code Subscribe#SCHEDULER_CURRENT_THREAD} which accept exactly int is called without any allocation.
+     * a Integer argument bind to it too and is unboxed, so {@code post(code, (Integer) null)} throw
+     * NullPointerException on the caller, post a nullable wrapper by {@link #postWithType(int, Object...)},
+     * like {@code postWithType(code, Integer.class, value)}. the same for the other primitive overloads
+     * @param code event code or command code or a message type
+     * @param value target callback method parameter
+     */
+    public void post(int code, int value) {
+        postPrimitive(code, int.class, value);
+    }
+
+    /** @see #post(int, int) */
+    public void post(int code, long value) {
+        postPrimitive(code, long.class, value);
+    }
+
+    /** @see #post(int, int) */
+    public void post(int code, float value) {
+        postPrimitive(code, float.class, Float.floatToRawIntBits(value));
+    }
+
+    /** @see #post(int, int) */
+    public void post(int code, double value) {
+        postPrimitive(code, double.class, Double.doubleToRawLongBits(value));
+    }
+
+    /** @see #post(int, int) */
+    public void post(int code, boolean value) {
+        postPrimitive(code, boolean.class, value ? 1L : 0L);
+    }
+
+    /**
+     * the post of a primitive parameter, which is carried as bits so no boxing unless a receiver need it
+     * @param type int, long, float, double or boolean
+     * @param bits the value of int or long, the raw bits of float or double, 1 or 0 of boolean
+     */
+    private void postPrimitive(int code, Class<?> type, long bits) {
+        final Receiver[] receivers = getReceivers(code);
+        if (receivers == null) {
+            if (deadCounts != null) {
+                onDeadEvent(new Message(code, false, new Object[] { box(type, bits) }));
+            }
+            return;
+        }
+        final PostingState state = beginPosting(receivers);
+        Message message = null;
+        boolean delivered = false;
+        try {
+            for (Receiver receiver : receivers) {
+                if (receiver.primitiveClass == type) {
+                    receiver.invoke(code, bits);
+                    delivered = true;
+                } else {
+                    if (message == null) {
+                        message = new Message(code, false, new Object[] { box(type, bits) });
+                    }
+                    delivered |= receiver.deliver(message);
+                }
+                if (state.isCancelled()) {
+                    break;
+                }
+            }
+        } finally {
+            endPosting(state);
+        }
+        if (!delivered && deadCounts != null) {
+            onDeadEvent(message);
+        }
+    }
+
+    /** @see #postPrimitive(int, Class, long) */
+    private static Object box(Class<?> type, long bits) {
+        if (type == int.class) {
+            return (int) bits;
+        } else if (type == long.class) {
+            return bits;
+        } else if (type == float.class) {
+            return Float.intBitsToFloat((int) bits);
+        } else if (type == double.class) {
+            return Double.longBitsToDouble(bits);
+        } else {
+            return bits != 0L;
+        }
+    }
+
+    /** @return the receivers of the code, or null if no one, and report the post to the metrics listener */
+    private Receiver[] getReceivers(int code) {
+        final Receiver[] receivers = receiverIndex.get(code);
+        if (metricsListener != null) {
+            metricsListener.onPost(code, receivers == null ? 0 : receivers.length);
+        }
+        return receivers;
+    }
+
+    /** keep the parameter as Byte rather than widen to int, see {@link #post(int, Object...)} */
+    public void post(int code, byte value) {
+        dispatch(code, false, new Object[] { value });
+    }
+
+    /** keep the parameter as Short rather than widen to int, see {@link #post(int, Object...)} */
+    public void post(int code, short value) {
+        dispatch(code, false, new Object[] { value });
+    }
+
+    /** keep the parameter as Character rather than widen to int, see {@link #post(int, Object...)} */
+    public void post(int code, char value) {
+        dispatch(code, false, new Object[] { value });
+    }
+
+    /**
+     * post a event for which has null parameter
+     * @param code event code or command code or a message type
+     * @param events target callback method types and parameters, like:
+     *               target: @Subscribe(..) doSomething(String a, String b)
+     *               origin: post((String)null, "Lee") // don't work
+     *               apply:  postWithType(String.class, null, String.class, "Lee") // work
+     *               if they are not in pairs, no one receive it and it is counted as a dead event,
+     *               see {@link Builder#deadEvents(int)}
+     * @see #post(int, Object...)
+     */
+    public void postWithType(int code, Object...events) {
+        if (isMalformed(events)) {
+            onMalformed(code, events);
+            return;
+        }
+        dispatch(code, true, events);
+    }
+
+    private static boolean isMalformed(Object[] typedEvents) {
+        return typedEvents == null || typedEvents.length % 2 != 0;
+    }
+
+    /**
+     * a event of {@link #postWithType(int, Object...)} which is not in pairs of type and parameter,
+     * is rejected by all receivers of the code like a parameters mismatch, and reported as a dead event
+     */
+    private void onMalformed(int code, Object[] events) {
+        final Message message = new Message(code, false, events);
+        final Receiver[] receivers = getReceivers(code);
+        if (receivers != null) {
+            for (Receiver receiver : receivers) {
+                receiver.reject(message);
+            }
+        }
+        if (deadCounts != null) {
+            onDeadEvent(message);
+        }
+    }
+
+    /**
+     * begin a batch of events, which dispatched on {@link Batch#commit()}.
+     * each receiver on a async scheduler get all its events of the batch by one scheduled task,
+     * and the post order is kept for each code.
+     * @return a batch, which is not thread safe
+     */
+    public Batch beginBatch() {
+        return new Batch();
+    }
+
+    /** a batch of events, see {@link #beginBatch()} */
+    public final class Batch {
+        private final ArrayList<Message> messages = new ArrayList<>();
+
+        Batch() {
+        }
+
+        /** @see RxBus#post(int, Object...) */
+        public Batch post(int code, Object...events) {
+            messages.add(new Message(code, false, events));
+            return this;
+        }
+
+        /** @see RxBus#postWithType(int, Object...), a malformed event is reported at once instead of on commit */
+        public Batch postWithType(int code, Object...events) {
+            if (isMalformed(events)) {
+                onMalformed(code, events);
+            } else {
+                messages.add(new Message(code, true, events));
+            }
+            return this;
+        }
+
+        /** dispatch all events of the batch, the batch is empty after that and can be reused */
+        public void commit() {
+            dispatchBatch(messages);
+            messages.clear();
+        }
+    }
+
+    private void dispatchBatch(List<Message> messages) {
+        final IdentityHashMap<Receiver, List<Message>> pendingMap = new IdentityHashMap<>();
+        for (Message message : messages) {
+            final Receiver[] receivers = getReceivers(message.code);
+            if (receivers == null) {
+                if (deadCounts != null) {
+                    onDeadEvent(message);
+                }
+                continue;
+            }
+            final PostingState state = beginPosting(receivers);
+            boolean delivered = false;
+            try {
+                for (Receiver receiver : receivers) {
+                    if (state.isCancelled()) {
+                        break;
+                    }
+                    if (!receiver.accept(message)) {
+                        receiver.reject(message);
+                        continue;
+                    }
+                    delivered = true;
+                    if (receiver.timeFilter != null) {
+                        receiver.timeFilter.filter(message);
+                        continue;
+                    }
+                    if (receiver.lane == null) {
+                        receiver.onEvent(message);
+                        continue;
+                    }
+                    List<Message> pending = pendingMap.get(receiver);
+                    if (pending == null) {
+                        pending = new ArrayList<>();
+                        pendingMap.put(receiver, pending);
+                    }
+                    pending.add(message);
+                }
+            } finally {
+                endPosting(state);
+            }
+            if (!delivered && deadCounts != null) {
+                onDeadEvent(message);
+            }
+        }
+        for (Map.Entry<Receiver, List<Message>> entry : pendingMap.entrySet()) {
+            entry.getKey().deliver(entry.getValue());
+        }
+    }
+
+    /**
+     * post a event like {@link #post(int, Object...)}, and keep it as the sticky event of the code,
+     * which is delivered to the subscribers of the code when they register later, until replaced or removed
+     * @see #removeSticky(int)
+     */
+    public void postSticky(int code, Object...events) {
+        postSticky(new Message(code, false, events));
+    }
+
+    /** @see #postSticky(int, Object...) and {@link #postWithType(int, Object...)} */
+    public void postStickyWithType(int code, Object...events) {
+        if (isMalformed(events)) {
+            onMalformed(code, events);
+            return;
+        }
+        postSticky(new Message(code, true, events));
+    }
+
+    /**
+     * keep the sticky event and take the receivers of its code under the lock of register, so a concurrent
+     * register either replay it or is reached by this dispatch, never both
+     */
+    private void postSticky(Message message) {
+        final Receiver[] receivers;
+        synchronized (receiverLock) {
+            stickyMap.put(message.code, message);
+            receivers = getReceivers(message.code);
+        }
+        if (receivers == null) {
+            if (deadCounts != null) {
+                onDeadEvent(message);
+            }
+            return;
+        }
+        dispatch(receivers, message);
+    }
+
+    /**
+     * remove the sticky event of the code, subscribers registered later will not receive it
+     * @return true if the code had a sticky event
+     */
+    public boolean removeSticky(int code) {
+        return stickyMap.remove(code) != null;
+    }
+
+    /** remove the sticky events of all codes */
+    public void removeAllSticky() {
+        stickyMap.clear();
+    }
+
+    /**
+     * only touch the receivers bound to the code, a code without receiver cost a table lookup only,
+     * plus a counter if count dead events
+     */
+    private void dispatch(int code, boolean isTypeInfoInParameters, Object[] events) {
+        final Receiver[] receivers = getReceivers(code);
+        if (receivers == null) {
+            if (deadCounts != null) {
+                onDeadEvent(new Message(code, isTypeInfoInParameters, events));
+            }
+            return;
+        }
+        dispatch(receivers, new Message(code, isTypeInfoInParameters, events));
+    }
+
+    private void dispatch(Receiver[] receivers, Message message) {
+        final PostingState state = beginPosting(receivers);
+        boolean delivered = false;
+        try {
+            for (Receiver receiver : receivers) {
+                delivered |= receiver.deliver(message);
+                if (state.isCancelled()) {
+                    break;
+                }
+            }
+        } finally {
+            endPosting(state);
+        }
+        if (!delivered && deadCounts != null) {
+            onDeadEvent(message);
+        }
+    }
+
+    /**
+     * cancel the delivery of the event being posted, the receivers of lower priority will not get it.
+     * only work in a target callback method on {@code Subscribe#SCHEDULER_CURRENT_THREAD} called by post
+     * a post nested in the callback is cancelled alone, the outer one go on
+     * @return false if nothing to cancel, e.g. called on a async scheduler or it is the only receiver
+     * @see Subscribe#priority()
+     */
+    public boolean cancelDelivery() {
+        final PostingState state = postingState.get();
+        if (state.depth == 0 || !state.cancellable[state.depth]) {
+            return false;
+        }
+        state.cancelledDepth = state.depth;
+        return true;
+    }
+
+    /** push a frame for every post, so a nested post is never mistaken for the outer one */
+    private PostingState beginPosting(Receiver[] receivers) {
+        final PostingState state = postingState.get();
+        state.push(receivers.length > 1);
+        return state;
+    }
+
+    private static void endPosting(PostingState state) {
+        if (state.cancelledDepth == state.depth) {
+            state.cancelledDepth = 0;
+        }
+        --state.depth;
+    }
+
+    /**
+     * register a event/message/command receiver on the calling thread, the events posted after it return
+     * are delivered to the receiver. all target callback methods of the receiver are published at once,
+     * a concurrent post see all or none of them
+     * @param subscriber callback target, must be not null
+     */
+    public void register(final Object subscriber) {
+        doRegister(subscriber, false);
+    }
+
+    /**
+     * same as {@link #register(Object)}, which is synchronous too
+     * @param subscriber callback target, must be not null
+     */
+    public void registerSync(final Object subscriber) {
+        doRegister(subscriber, false);
+    }
+
+    /**
+     * register a event/message/command receiver like {@link #register(Object)}, but only hold it by weak reference,
+     * so it can be garbage collected without unregister, the dead one is removed on dispatch or next register
+     * @param subscriber callback target, must be not null
+     */
+    public void registerWeak(final Object subscriber) {
+        doRegister(subscriber, true);
+    }
+
+    /**
+     * same as {@link #registerWeak(Object)}, which is synchronous too
+     * @param subscriber callback target, must be not null
+     */
+    public void registerWeakSync(final Object subscriber) {
+        doRegister(subscriber, true);
+    }
+
+    /**
+     * cancel register a event/message/command receiver on the calling thread, no target callback method of it
+     * is called for the events posted after it return, and its pending events on async schedulers are discarded
+     * @param subscriber callback target, can be null
+     */
+    public void unregister(final Object subscriber) {
+        doUnregister(subscriber);
+    }
+
+    /**
+     * same as {@link #unregister(Object)}, which is synchronous too
+     * @param subscriber callback target, can be null
+     */
+    public void unregisterSync(final Object subscriber) {
+        doUnregister(subscriber);
+    }
+
+    /**
+     * register a group of event/message/command receivers like {@link #register(Object)}, all target callback
+     * methods of them are published by one update, so it's cheaper than register them one by one
+     * @param subscribers callback targets, must be not null and contain no null, or else none is registered
+     */
+    public void registerAll(Collection<?> subscribers) {
+        doRegister(subscribers, false);
+    }
+
+    /**
+     * cancel register a group of event/message/command receivers like {@link #unregister(Object)}
+     * by one update
+     * @param subscribers callback targets, must be not null, can contain null
+     */
+    public void unregisterAll(Collection<?> subscribers) {
+        expungeStaleSubscribers();
+        final List<Receiver> receivers = new ArrayList<>();
+        for (Object subscriber : subscribers) {
+            final List<Receiver> removed = subscriberMap.remove(new SubscriberKey(subscriber));
+            if (removed != null) {
+                receivers.addAll(removed);
+            }
+        }
+        if (!receivers.isEmpty()) {
+            removeReceivers(receivers);
+        }
+    }
+
+    /** @return a new scope to register a group of subscribers and unregister them at once, see {@link Scope} */
+    public Scope newScope() {
+        return new Scope();
+    }
+
+    /**
+     * a group of subscribers share a lifecycle, e.g. the views, presenters and adapters of a screen.
+     * {@link #close()} unregister all subscribers registered by the scope with one update, even if they were
+     * registered before. it's thread safe
+     */
+    public final class Scope {
+        private final ArrayList<Object> subscribers = new ArrayList<>();
+
+        Scope() {
+        }
+
+        /** @see RxBus#register(Object) */
+        public synchronized Scope register(Object subscriber) {
+            RxBus.this.register(subscriber);
+            subscribers.add(subscriber);
+            return this;
+        }
+
+        /** @see RxBus#registerAll(Collection) */
+        public synchronized Scope registerAll(Collection<?> subscribers) {
+            RxBus.this.registerAll(subscribers);
+            this.subscribers.addAll(subscribers);
+            return this;
+        }
+
+        /** unregister all subscribers registered by the scope, the scope is empty after that and can be reused */
+        public synchronized void close() {
+            unregisterAll(subscribers);
+            subscribers.clear();
+        }
+    }
+
+    private void doRegister(final Object subscriber, boolean weak) {
+        doRegister(Collections.singletonList(subscriber), weak);
+    }
+
+    private void doRegister(Collection<?> subscribers, boolean weak) {
+        expungeStaleSubscribers();
+        final LinkedHashMap<SubscriberKey, List<Receiver>> receiversMap = new LinkedHashMap<>();
+        for (Object subscriber : subscribers) {
+            final SubscriberKey subscriberKey = weak ? new WeakSubscriberKey(subscriber, referenceQueue)
+                    : new SubscriberKey(subscriber);
+            if (subscriberMap.containsKey(subscriberKey) || receiversMap.containsKey(subscriberKey)) {
+                continue;
+            }
+            final SubscribeEntry[] entries = getSubscribeEntries(subscriber.getClass());
+            final List<Receiver> receivers = new ArrayList<>(entries.length);
+            for (SubscribeEntry entry : entries) {
+                receivers.add(createReceiver(entry, subscriberKey));
+            }
+            receiversMap.put(subscriberKey, receivers);
+        }
+        final IdentityHashMap<Receiver, List<Message>> stickyMessagesMap = new IdentityHashMap<>();
+        addReceivers(receiversMap, stickyMessagesMap);
+        for (Map.Entry<Receiver, List<Message>> entry : stickyMessagesMap.entrySet()) {
+            final Receiver receiver = entry.getKey();
+            for (Message sticky : entry.getValue()) {
+                receiver.deliver(sticky);
+            }
+        }
+    }
+
+    /** a lookup per exact code, only a code range need to scan all sticky events */
+    private void collectSticky(Receiver receiver, Map<Receiver, List<Message>> stickyMessagesMap) {
+        final SubscribeEntry entry = receiver.entry;
+        final List<Message> stickyMessages = new ArrayList<>();
+        for (int code : entry.codes) {
+            final Message sticky = stickyMap.get(code);
+            if (sticky != null) {
+                stickyMessages.add(sticky);
+            }
+        }
+        if (entry.codeFrom <= entry.codeTo) {
+            for (Map.Entry<Integer, Message> sticky : stickyMap.entrySet()) {
+                final int code = sticky.getKey();
+                if (code >= entry.codeFrom && code <= entry.codeTo) {
+                    stickyMessages.add(sticky.getValue());
+                }
+            }
+        }
+        if (!stickyMessages.isEmpty()) {
+            stickyMessagesMap.put(receiver, stickyMessages);
+        }
+    }
+
+    private void doUnregister(final Object subscriber) {
+        expungeStaleSubscribers();
+        final List<Receiver> receivers = subscriberMap.remove(new SubscriberKey(subscriber));
+        if (receivers != null) {
+            removeReceivers(receivers);
+        }
+    }
+
+    /** remove the weak registered subscribers which had been garbage collected */
+    private void expungeStaleSubscribers() {
+        Reference<?> reference;
+        while ((reference = referenceQueue.poll()) != null) {
+            removeDeadSubscriber(((SubscriberReference) reference).subscriberKey);
+        }
+    }
+
+    private void removeDeadSubscriber(SubscriberKey subscriberKey) {
+        final List<Receiver> receivers = subscriberMap.remove(subscriberKey);
+        if (receivers != null) {
+            removeReceivers(receivers);
+        }
+    }
+
+    private SubscribeEntry[] getSubscribeEntries(Class<?> subscriberClass) {
+        synchronized (subscribeEntryCache) {
+            final SoftReference<SubscribeEntry[]> reference = subscribeEntryCache.get(subscriberClass);
+            final SubscribeEntry[] entries = reference != null ? reference.get() : null;
+            if (entries != null) {
+                ++cacheHitCount;
+                return entries;
+            }
+            ++cacheMissCount;
+        }
+        final SubscribeEntry[] entries = findSubscribeEntries(subscriberClass);
+        synchronized (subscribeEntryCache) {
+            if (maxCachedSubscriberClasses == 0) {
+                return entries;
+            }
+            if (subscribeEntryCache.size() >= maxCachedSubscriberClasses) {
+                final Iterator<Class<?>> iterator = subscribeEntryCache.keySet().iterator();
+                if (iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+            subscribeEntryCache.put(subscriberClass, new SoftReference<>(entries));
+        }
+        return entries;
+    }
+
+    /** @return how many register resolved subscribe entries from cache, for test */
+    long getCacheHitCount() {
+        synchronized (subscribeEntryCache) {
+            return cacheHitCount;
+        }
+    }
+
+    /** @return how many register resolved subscribe entries by index or reflection, for test */
+    long getCacheMissCount() {
+        synchronized (subscribeEntryCache) {
+            return cacheMissCount;
+        }
+    }
+
+    private SubscribeEntry[] findSubscribeEntries(Class<?> subscriberClass) {
+        final SubscriberIndex subscriberIndex = useGeneratedIndex ? findSubscriberIndex(subscriberClass) : null;
+        if (subscriberIndex != null) {
+            final SubscriberMethod[] methods = subscriberIndex.getSubscriberMethods();
+            final SubscribeEntry[] entries = new SubscribeEntry[methods.length];
+            for (int i = 0; i < methods.length; ++i) {
+                final SubscriberMethod method = methods[i];
+                final Invoker invoker = method.invoker != null ? method.invoker
+                        : new ReflectInvoker(getDeclaredMethod(subscriberClass, method));
+                entries[i] = new SubscribeEntry(method.subscribe, subscriberClass, method.name,
+                        method.parameterTypes, invoker);
+            }
+            return entries;
+        }
+        final ArrayList<SubscribeEntry> entries = new ArrayList<>();
+        for (Method method : subscriberClass.getDeclaredMethods()) {
+            final Subscribe subscribe = method.getAnnotation(Subscribe.class);
+            if (subscribe != null) {
+                method.setAccessible(true);
+                entries.add(new SubscribeEntry(subscribe, subscriberClass, method.getName(),
+                        method.getParameterTypes(), new ReflectInvoker(method)));
+            }
+        }
+        return entries.toArray(new SubscribeEntry[entries.size()]);
+    }
+
+    private static SubscriberIndex findSubscriberIndex(Class<?> subscriberClass) {
+        try {
+            return (SubscriberIndex) Class.forName(subscriberClass.getName() + SubscriberIndex.CLASS_NAME_SUFFIX,
+                    true, subscriberClass.getClassLoader()).newInstance();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Method getDeclaredMethod(Class<?> subscriberClass, SubscriberMethod method) {
+        try {
+            final Method declaredMethod = subscriberClass.getDeclaredMethod(method.name, method.parameterTypes);
+            declaredMethod.setAccessible(true);
+            return declaredMethod;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("The generated index is out of date with " + subscriberClass, e);
+        }
+    }
+
+    private Receiver createReceiver(SubscribeEntry entry, SubscriberKey subscriberKey) {
+        final Lane lane = entry.scheduler == Subscribe.SCHEDULER_CURRENT_THREAD ? null : getLane(entry.scheduler);
+        return new Receiver(entry, subscriberKey, lane, false);
+    }
+
+    /**
+     * publish the receivers of the subscribers by one update of the index, skip the subscribers which had been
+     * registered or have no receiver. the sticky events of the added receivers are collected under the same lock
+     * as {@link #postSticky(Message)}, so a sticky event reach a receiver once, by replay or by its dispatch
+     * @param stickyMessagesMap out, the sticky events to replay to each added receiver
+     */
+    private void addReceivers(Map<SubscriberKey, List<Receiver>> receiversMap,
+                              Map<Receiver, List<Message>> stickyMessagesMap) {
+        synchronized (receiverLock) {
+            final CodeIndex<Receiver>.Editor editor = receiverIndex.edit();
+            for (Map.Entry<SubscriberKey, List<Receiver>> entry : receiversMap.entrySet()) {
+                final List<Receiver> receivers = entry.getValue();
+                if (receivers.isEmpty() || subscriberMap.putIfAbsent(entry.getKey(), receivers) != null) {
+                    continue;
+                }
+                for (Receiver receiver : receivers) {
+                    receiver.sequence = ++registerSequence;
+                    for (int code : receiver.entry.codes) {
+                        editor.add(code, receiver);
+                    }
+                    editor.addRange(receiver.entry.codeFrom, receiver.entry.codeTo, receiver);
+                    if (!stickyMap.isEmpty()) {
+                        collectSticky(receiver, stickyMessagesMap);
+                    }
+                }
+            }
+            receiverIndex = editor.commit();
+        }
+    }
+
+    private void removeReceivers(List<Receiver> receivers) {
+        synchronized (receiverLock) {
+            final CodeIndex<Receiver>.Editor editor = receiverIndex.edit();
+            for (Receiver receiver : receivers) {
+                for (int code : receiver.entry.codes) {
+                    editor.remove(code, receiver);
+                }
+                editor.removeRange(receiver.entry.codeFrom, receiver.entry.codeTo, receiver);
+            }
+            receiverIndex = editor.commit();
+        }
+        for (Receiver receiver : receivers) {
+            receiver.cancel();
+        }
+    }
+
+    /**
+     * @return a slot per conflated code of the entry, or null if none conflate. the slots of a conflated range are
+     * created on demand
+     */
+    private ConcurrentHashMap<Integer, AtomicReference<Message>> createSlots(SubscribeEntry entry) {
+        final ConcurrentHashMap<Integer, AtomicReference<Message>> slots = new ConcurrentHashMap<>();
+        for (int code : entry.codes) {
+            if (entry.conflate || conflateCodes.contains(code)) {
+                slots.put(code, new AtomicReference<Message>());
+            }
+        }
+        for (int code : conflateCodes) {
+            if (code >= entry.codeFrom && code <= entry.codeTo) {
+                slots.put(code, new AtomicReference<Message>());
+            }
+        }
+        final boolean conflateRange = entry.conflate && entry.codeFrom <= entry.codeTo;
+        return slots.isEmpty() && !conflateRange ? null : slots;
+    }
+
+    private Scheduler.Worker getTimerWorker() {
+        Scheduler.Worker worker = timerWorker;
+        if (worker == null) {
+            synchronized (receiverLock) {
+                worker = timerWorker;
+                if (worker == null) {
+                    worker = getScheduler(Subscribe.SCHEDULER_COMPUTE_POOL_THREAD).createWorker();
+                    timerWorker = worker;
+                }
+            }
+        }
+        return worker;
+    }
+
+    private Lane getLane(int scheduler) {
+        Lane lane = laneMap.get(scheduler);
+        if (lane == null) {
+            final Lane newLane = new Lane(getScheduler(scheduler), getMaxDrainers(scheduler));
+            lane = laneMap.putIfAbsent(scheduler, newLane);
+            if (lane == null) {
+                lane = newLane;
+            }
+        }
+        return lane;
+    }
+
+    /** the new thread and io schedulers are unbounded, the main thread has one thread */
+    private static int getMaxDrainers(int scheduler) {
+        switch (scheduler) {
+            case Subscribe.SCHEDULER_NEW_THREAD:
+            case Subscribe.SCHEDULER_IO_POOL_THREAD:
+                return Integer.MAX_VALUE;
+            case Subscribe.SCHEDULER_MAIN_THREAD:
+                return 1;
+            default:
+                return Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    private Scheduler getScheduler(int scheduler) {
+        final Scheduler customScheduler = customSchedulerMap.get(scheduler);
+        if (customScheduler != null) {
+            return customScheduler;
+        }
+        switch (scheduler) {
+            case Subscribe.SCHEDULER_CURRENT_THREAD:
+                return Schedulers.immediate();
+            case Subscribe.SCHEDULER_NEW_THREAD:
+                return Schedulers.newThread();
+            case Subscribe.SCHEDULER_IO_POOL_THREAD:
+                return Schedulers.io();
+            case Subscribe.SCHEDULER_COMPUTE_POOL_THREAD:
+                return Schedulers.computation();
+            case Subscribe.SCHEDULER_MAIN_THREAD:
+                throw new UnsupportedOperationException("Main thread scheduler not bound");
+            default:
+                throw new UnsupportedOperationException("Unknown scheduler type");
+        }
+    }
+
+    /** the listener is called on the hot path of others, so its exception must not break the delivery */
+    private static final class GuardedMetricsListener implements MetricsListener {
+        private final MetricsListener listener;
+
+        GuardedMetricsListener(MetricsListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onPost(int code, int receivers) {
+            try {
+                listener.onPost(code, receivers);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+
+        @Override
+        public void onInvoke(int code, String subscriber, long nanos, Throwable error) {
+            try {
+                listener.onInvoke(code, subscriber, nanos, error);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+
+        @Override
+        public void onDrop(int code, String subscriber, int reason) {
+            try {
+                listener.onDrop(code, subscriber, reason);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+
+        @Override
+        public void onQueueDepth(String subscriber, int depth) {
+            try {
+                listener.onQueueDepth(subscriber, depth);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /** the posts in progress on a thread, see {@link #cancelDelivery()} */
+    private static final class PostingState {
+        /** how many posts nest */
+        int depth;
+        /** the depth of the cancelled post, 0 if no one */
+        int cancelledDepth;
+        /** whether the post of each depth has more than one receiver, index 0 is unused */
+        boolean[] cancellable = new boolean[8];
+
+        void push(boolean cancellable) {
+            if (++depth == this.cancellable.length) {
+                this.cancellable = Arrays.copyOf(this.cancellable, depth * 2);
+            }
+            this.cancellable[depth] = cancellable;
+        }
+
+        boolean isCancelled() {
+            return cancelledDepth == depth;
+        }
+    }
+
+    private static final class SubscribeEntry {
+        /** the distinct exact codes, exclude the ones in the range */
+        final int[] codes;
+        final int codeFrom;
+        /** inclusive, the range is empty if codeTo < codeFrom */
+        final int codeTo;
+        final int scheduler;
+        final int priority;
+        final int capacity;
+        final int overflow;
+        final boolean conflate;
+        final long debounceMillis;
+        final long throttleMillis;
+        final long sampleMillis;
+        final int partitions;
+        final int partitionKey;
+        final Class<?> instanceClass;
+        final String methodName;
+        final Class<?>[] parametersClasses;
+        final Invoker invoker;
+        final ParameterValidator validator;
+        /** like {@code com.example.Foo#onBar(java.lang.String;)}, identify the method in metrics */
+        final String signature;
+        private final int hashCode;
+
+        SubscribeEntry(Subscribe subscribe, Class<?> instanceClass, String methodName, Class<?>[] parametersClasses,
+                       Invoker invoker) {
+            this.codeFrom = subscribe.codeFrom();
+            this.codeTo = subscribe.codeTo();
+            this.codes = getExactCodes(subscribe, codeFrom, codeTo);
+            if (codes.length == 0 && codeFrom > codeTo) {
+                throw new IllegalArgumentException("No code subscribed by " + instanceClass.getName() + '#'
+                        + methodName);
+            }
+            this.scheduler = subscribe.scheduler();
+            this.priority = subscribe.priority();
+            this.capacity = subscribe.capacity();
+            this.overflow = subscribe.overflow();
+            this.conflate = subscribe.conflate();
+            this.debounceMillis = subscribe.debounceMillis();
+            this.throttleMillis = subscribe.throttleMillis();
+            this.sampleMillis = subscribe.sampleMillis();
+            this.partitions = subscribe.partitions();
+            this.partitionKey = subscribe.partitionKey();
+            if (partitions > 1) {
+                if (scheduler == Subscribe.SCHEDULER_CURRENT_THREAD) {
+                    throw new IllegalArgumentException("Partitions on current thread by "
+                            + instanceClass.getName() + '#' + methodName);
+                }
+                if (partitionKey < 0 || partitionKey >= parametersClasses.length) {
+                    throw new IllegalArgumentException("No parameter at partitionKey " + partitionKey + " of "
+                            + instanceClass.getName() + '#' + methodName);
+                }
+            }
+            this.instanceClass = instanceClass;
+            this.methodName = methodName;
+            this.parametersClasses = parametersClasses;
+            this.invoker = invoker;
+            this.validator = new ParameterValidator(parametersClasses);
+            this.signature = getSignature(instanceClass, methodName, parametersClasses);
+            this.hashCode = calculateHashCode();
+        }
+
+        private static int[] getExactCodes(Subscribe subscribe, int codeFrom, int codeTo) {
+            final LinkedHashSet<Integer> codeSet = new LinkedHashSet<>();
+            if (subscribe.code() != Subscribe.NO_CODE) {
+                codeSet.add(subscribe.code());
+            }
+            for (int code : subscribe.codes()) {
+                codeSet.add(code);
+            }
+            final int[] codes = new int[codeSet.size()];
+            int count = 0;
+            for (int code : codeSet) {
+                if (code < codeFrom || code > codeTo) {
+                    codes[count++] = code;
+                }
+            }
+            return Arrays.copyOf(codes, count);
+        }
+
+        private static String getSignature(Class<?> instanceClass, String methodName, Class<?>[] parametersClasses) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(instanceClass.getName()).append('#').append(methodName).append('(');
+            for (Class<?> clazz : parametersClasses) {
+                sb.append(clazz.getName()).append(';');
+            }
+            return sb.append(')').toString();
+        }
+
+        private int calculateHashCode() {
+            final int codesHashCode = 31 * (31 * Arrays.hashCode(codes) + codeFrom) + codeTo;
+            return  31 * codesHashCode + signature.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SubscribeEntry that = (SubscribeEntry) o;
+            return this.hashCode == that.hashCode;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class ReflectInvoker extends Invoker {
+        private final Method method;
+
+        ReflectInvoker(Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public void invoke(Object subscriber, Object[] parameters) throws Exception {
+            method.invoke(subscriber, parameters);
+        }
+    }
+
+    /**
+     * all receivers on the same scheduler share one lane: a lock-free queue of receivers which have pending
+     * messages, drained by at most {@link #maxDrainers} worker loops at a time. so a post schedule at most one task
+     * while the lane is busy enough, and the receivers still run in parallel on a multi-threaded scheduler.
+     * each receiver is drained by one loop at a time, see {@link Receiver#drain(Lane)}
+     */
+    private static final class Lane {
+        final Scheduler scheduler;
+        /** as many as the threads of the scheduler, more loops only queue up in the scheduler */
+        final int maxDrainers;
+        final ConcurrentLinkedQueue<Receiver> readyQueue;
+        final AtomicInteger drainers;
+
+        Lane(Scheduler scheduler, int maxDrainers) {
+            this.scheduler = scheduler;
+            this.maxDrainers = maxDrainers;
+            this.readyQueue = new ConcurrentLinkedQueue<>();
+            this.drainers = new AtomicInteger();
+        }
+
+        void submit(Receiver receiver) {
+            readyQueue.offer(receiver);
+            tryDrain();
+        }
+
+        /** start a new worker loop if there are not enough */
+        private void tryDrain() {
+            for (;;) {
+                final int count = drainers.get();
+                if (count >= maxDrainers) {
+                    return;
+                }
+                if (drainers.compareAndSet(count, count + 1)) {
+                    break;
+                }
+            }
+            final Scheduler.Worker worker = scheduler.createWorker();
+            worker.schedule(new Action0() {
+                @Override
+                public void call() {
+                    try {
+                        drain();
+                    } finally {
+                        worker.unsubscribe();
+                        drainers.decrementAndGet();
+                        // a receiver offered after the last poll may see all loops running, so pick it up
+                        if (!readyQueue.isEmpty()) {
+                            tryDrain();
+                        }
+                    }
+                }
+            });
+        }
+
+        private void drain() {
+            Receiver receiver;
+            while ((receiver = readyQueue.poll()) != null) {
+                receiver.drain(this);
+            }
+        }
+    }
+
+    /**
+     * a registered target callback method bound to it's subscriber.
+     * for a async scheduler, messages wait in a lock-free queue, the receiver join its lane when the queue
+     * become non-empty, and only the lane drain the queue, so the callback keep the post order of each producer
+     * and never run concurrently with itself. if {@code Subscribe#capacity()} is set, the pending messages is
+     * counted and the overflow policy apply when the queue is full. for a conflated code, the receiver keep only the
+     * newest pending message in the slot of the code, and the queue hold the place of the slot. a partitioned
+     * receiver own a partition receiver per partition on its lane, and route each message to one of them by the
+     * key parameter. a receiver which is slow too many times move to the fallback lane, see {@link Builder#isolateSlowHandlers(int, Executor)};
+     * for {@code Subscribe#SCHEDULER_CURRENT_THREAD}, the callback run on the posting thread directly.
+     */
+    private final class Receiver {
+        final SubscribeEntry entry;
+        final SubscriberKey subscriberKey;
+        /** null means call on the posting thread, a slow receiver may move to the fallback lane */
+        volatile Lane lane;
+        /** debounce, throttle or sample the messages before queue them, or null */
+        final TimeFilter timeFilter;
+        /** the only parameter type if it's primitive and call on the posting thread directly, or else null */
+        final Class<?> primitiveClass;
+        final ConcurrentLinkedQueue<Message> queue;
+        /** the newest pending message of each conflated code, or null if no code conflate */
+        final ConcurrentHashMap<Integer, AtomicReference<Message>> slots;
+        final AtomicInteger wip;
+        /** count of pending messages if bounded and not block the producer, or measured, or else null */
+        final AtomicInteger pending;
+        /** room for pending messages if bounded and block the producer, or else null */
+        final Semaphore permits;
+        /** count of dropped messages if bounded, or else null */
+        final AtomicLong dropped;
+        /** the partition receivers if partitioned, see {@link Subscribe#partitions()}, or else null */
+        final Receiver[] partitions;
+        /** how many times the callback run over the budget, or null if no budget */
+        final AtomicInteger slowCount;
+        volatile boolean cancelled;
+        /** the register order among the receivers of equal priority, set once before it is published */
+        long sequence;
+
+        /** @param partition true if it is a partition of another receiver */
+        Receiver(SubscribeEntry entry, SubscriberKey subscriberKey, Lane lane, boolean partition) {
+            this.entry = entry;
+            this.subscriberKey = subscriberKey;
+            this.lane = lane;
+            if (partition) {
+                this.timeFilter = null;
+            } else if (entry.debounceMillis > 0L) {
+                this.timeFilter = new TimeFilter(this, TimeFilter.DEBOUNCE, entry.debounceMillis);
+            } else if (entry.throttleMillis > 0L) {
+                this.timeFilter = new TimeFilter(this, TimeFilter.THROTTLE, entry.throttleMillis);
+            } else if (entry.sampleMillis > 0L) {
+                this.timeFilter = new TimeFilter(this, TimeFilter.SAMPLE, entry.sampleMillis);
+            } else {
+                this.timeFilter = null;
+            }
+            final Class<?>[] parametersClasses = entry.parametersClasses;
+            this.primitiveClass = lane == null && timeFilter == null && parametersClasses.length == 1
+                    && parametersClasses[0].isPrimitive() ? parametersClasses[0] : null;
+            if (lane != null && !partition && entry.partitions > 1) {
+                this.partitions = new Receiver[entry.partitions];
+                for (int i = 0; i < partitions.length; ++i) {
+                    partitions[i] = new Receiver(entry, subscriberKey, lane, true);
+                }
+            } else {
+                this.partitions = null;
+            }
+            final boolean queued = lane != null && partitions == null;
+            this.queue = queued ? new ConcurrentLinkedQueue<Message>() : null;
+            this.slots = queued ? createSlots(entry) : null;
+            this.wip = queued ? new AtomicInteger() : null;
+            final boolean bounded = queue != null && entry.capacity > 0;
+            final boolean block = bounded && entry.overflow == Subscribe.OVERFLOW_BLOCK;
+            this.pending = (bounded && !block) || (queue != null && metricsListener != null)
+                    ? new AtomicInteger() : null;
+            this.permits = block ? new Semaphore(entry.capacity) : null;
+            this.dropped = bounded ? new AtomicLong() : null;
+            this.slowCount = slowHandlerBudgetNanos > 0L ? new AtomicInteger() : null;
+        }
+
+        boolean accept(Message message) {
+            return !validateParametersMatches || entry.validator.validate(message.arguments,
+                    message.isTypeInfoInParameters ? message.parameters : null);
+        }
+
+        /** a message which don't match the parameters of the target callback method */
+        void reject(Message message) {
+            if (metricsListener != null) {
+                metricsListener.onDrop(message.code, entry.signature, MetricsListener.DROP_PARAMETERS_MISMATCH);
+            }
+        }
+
+        /** @return false if the message don't match the parameters */
+        boolean deliver(Message message) {
+            if (!accept(message)) {
+                reject(message);
+                return false;
+            }
+            if (timeFilter != null) {
+                timeFilter.filter(message);
+                return true;
+            }
+            forward(message);
+            return true;
+        }
+
+        /** call or enqueue a accepted message which passed the time filter */
+        void forward(Message message) {
+            if (lane == null) {
+                onEvent(message);
+                return;
+            }
+            if (partitions != null) {
+                getPartition(message).forward(message);
+                return;
+            }
+            if (enqueue(message)) {
+                signal();
+            }
+        }
+
+        /** enqueue accepted messages of a batch, and join the lane once for them */
+        void deliver(List<Message> messages) {
+            if (partitions != null) {
+                for (Message message : messages) {
+                    getPartition(message).forward(message);
+                }
+                return;
+            }
+            boolean enqueued = false;
+            for (Message message : messages) {
+                enqueued |= enqueue(message);
+            }
+            if (enqueued) {
+                signal();
+            }
+        }
+
+        /** @return false if the message is dropped by the overflow policy, or replace a pending one */
+        private boolean enqueue(Message message) {
+            final int capacity = entry.capacity;
+            final AtomicReference<Message> slot = getSlot(message.code);
+            if (slot != null) {
+                if (slot.getAndSet(message) != null) {
+                    return false;
+                }
+                if (pending != null) {
+                    pending.incrementAndGet();
+                }
+                queue.offer(message);
+                return true;
+            }
+            if (dropped == null) {
+                if (metricsListener != null) {
+                    metricsListener.onQueueDepth(entry.signature, pending.incrementAndGet());
+                }
+                queue.offer(message);
+                return true;
+            }
+            if (permits != null) {
+                permits.acquireUninterruptibly();
+            } else if (pending.incrementAndGet() > capacity) {
+                switch (entry.overflow) {
+                    case Subscribe.OVERFLOW_DROP_OLDEST:
+                        final Message oldest = poll();
+                        if (oldest != null) {
+                            drop(oldest);
+                        }
+                        break;
+                    case Subscribe.OVERFLOW_KEEP_LATEST:
+                        Message stale;
+                        for (int i = 0; i < capacity && (stale = poll()) != null; ++i) {
+                            drop(stale);
+                        }
+                        break;
+                    default:
+                        pending.decrementAndGet();
+                        drop(message);
+                        return false;
+                }
+            }
+            queue.offer(message);
+            if (metricsListener != null) {
+                metricsListener.onQueueDepth(entry.signature,
+                        permits != null ? capacity - permits.availablePermits() : pending.get());
+            }
+            return true;
+        }
+
+        /** @return the slot of the code if it conflate, or else null */
+        private AtomicReference<Message> getSlot(int code) {
+            if (slots == null) {
+                return null;
+            }
+            AtomicReference<Message> slot = slots.get(code);
+            if (slot == null && entry.conflate) {
+                final AtomicReference<Message> newSlot = new AtomicReference<>();
+                slot = slots.putIfAbsent(code, newSlot);
+                if (slot == null) {
+                    slot = newSlot;
+                }
+            }
+            return slot;
+        }
+
+        /**
+         * a queued message of a conflated code only hold the place, take the newest one from the slot.
+         * it is counted as pending but never take a permit, so it is not blocked by the capacity
+         */
+        private Message poll() {
+            Message message;
+            while ((message = queue.poll()) != null) {
+                final AtomicReference<Message> slot = getSlot(message.code);
+                if (slot == null) {
+                    if (permits != null) {
+                        permits.release();
+                    } else if (pending != null) {
+                        pending.decrementAndGet();
+                    }
+                    return message;
+                }
+                if (pending != null) {
+                    pending.decrementAndGet();
+                }
+                message = slot.getAndSet(null);
+                if (message != null) {
+                    return message;
+                }
+            }
+            return null;
+        }
+
+        private Receiver getPartition(Message message) {
+            final Object[] arguments = message.arguments;
+            final int index = entry.partitionKey;
+            final Object key = arguments != null && index >= 0 && index < arguments.length ? arguments[index] : null;
+            if (key == null) {
+                return partitions[0];
+            }
+            final int h = key.hashCode();
+            return partitions[((h ^ (h >>> 16)) & Integer.MAX_VALUE) % partitions.length];
+        }
+
+        void cancel() {
+            cancelled = true;
+            if (partitions != null) {
+                for (Receiver partition : partitions) {
+                    partition.cancelled = true;
+                }
+            }
+        }
+
+        long getDroppedCount() {
+            long count = dropped != null ? dropped.get() : 0L;
+            if (partitions != null) {
+                for (Receiver partition : partitions) {
+                    count += partition.getDroppedCount();
+                }
+            }
+            return count;
+        }
+
+        private void drop(Message message) {
+            dropped.incrementAndGet();
+            droppedCount.incrementAndGet();
+            if (metricsListener != null) {
+                metricsListener.onDrop(message.code, entry.signature, MetricsListener.DROP_OVERFLOW);
+            }
+        }
+
+        private void signal() {
+            if (wip.getAndIncrement() == 0) {
+                lane.submit(this);
+            }
+        }
+
+        /** call on the posting thread with a primitive parameter, see {@link #postPrimitive(int, Class, long)} */
+        void invoke(int code, long bits) {
+            invoke(code, null, bits);
+        }
+
+        void onEvent(Message message) {
+            invoke(message.code, message, 0L);
+        }
+
+        /** call with the message, or with the primitive bits if message is null, then report the call */
+        private void invoke(int code, Message message, long bits) {
+            final Object subscriber = getSubscriber();
+            if (subscriber == null) {
+                return;
+            }
+            final long start = timing ? System.nanoTime() : 0L;
+            Exception error = null;
+            try {
+                if (message != null) {
+                    entry.invoker.invoke(subscriber, message.arguments);
+                } else {
+                    invokePrimitive(subscriber, bits);
+                }
+            } catch (Exception e) {
+                error = e;
+            }
+            afterInvoke(code, start, error);
+        }
+
+        /** the only part of the primitive path which depend on the type, so the value is never boxed */
+        private void invokePrimitive(Object subscriber, long bits) throws Exception {
+            final Invoker invoker = entry.invoker;
+            if (primitiveClass == int.class) {
+                invoker.invoke(subscriber, (int) bits);
+            } else if (primitiveClass == long.class) {
+                invoker.invoke(subscriber, bits);
+            } else if (primitiveClass == float.class) {
+                invoker.invoke(subscriber, Float.intBitsToFloat((int) bits));
+            } else if (primitiveClass == double.class) {
+                invoker.invoke(subscriber, Double.longBitsToDouble(bits));
+            } else {
+                invoker.invoke(subscriber, bits != 0L);
+            }
+        }
+
+        /** report the call to the metrics listener, or else only print the error, and check the budget */
+        private void afterInvoke(int code, long start, Exception error) {
+            final long nanos = timing ? System.nanoTime() - start : 0L;
+            if (metricsListener != null) {
+                metricsListener.onInvoke(code, entry.signature, nanos, error);
+            } else if (error != null) {
+                error.printStackTrace();
+            }
+            if (slowCount != null && nanos > slowHandlerBudgetNanos) {
+                onSlow(code, nanos);
+            }
+        }
+
+        private void onSlow(int code, long nanos) {
+            final int violations = slowCount.incrementAndGet();
+            final boolean isolated = violations == maxSlowViolations && fallbackLane != null && lane != null;
+            if (isolated) {
+                lane = fallbackLane;
+            }
+            if (slowHandlerListener != null) {
+                try {
+                    slowHandlerListener.onSlowHandler(code, entry.signature, nanos, violations, isolated);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        /** @return the subscriber, or null if it is weak registered and had been garbage collected */
+        private Object getSubscriber() {
+            final Object subscriber = subscriberKey.get();
+            if (subscriber == null) {
+                removeDeadSubscriber(subscriberKey);
+            }
+            return subscriber;
+        }
+
+        /**
+         * called by the lane, yield the lane to other receivers after {@link #drainLimit} messages,
+         * or hand over to the new lane at once if it is moved. if a Error escape from the callback,
+         * the rest messages are drained by a new loop, or else the receiver stall forever
+         */
+        void drain(Lane owner) {
+            boolean failed = true;
+            try {
+                drainLoop(owner);
+                failed = false;
+            } finally {
+                if (failed) {
+                    lane.submit(this);
+                }
+            }
+        }
+
+        private void drainLoop(Lane owner) {
+            if (lane != owner) {
+                lane.submit(this);
+                return;
+            }
+            int missed = wip.get();
+            int count = 0;
+            for (;;) {
+                Message message;
+                while ((message = poll()) != null) {
+                    if (!cancelled) {
+                        onEvent(message);
+                    }
+                    if (++count >= drainLimit || lane != owner) {
+                        lane.submit(this);
+                        return;
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+                if (missed == 0) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * debounce, throttle or sample the accepted messages of a receiver before they are queued,
+     * throttle need no timer, debounce and sample keep the newest message in a slot with at most one
+     * outstanding timer per receiver on the timer worker of the bus.
+     */
+    private final class TimeFilter implements Action0 {
+        static final int DEBOUNCE = 1;
+        static final int THROTTLE = 2;
+        static final int SAMPLE = 3;
+
+        final Receiver receiver;
+        final int mode;
+        final long windowNanos;
+        final AtomicReference<Message> latest;
+        final AtomicBoolean scheduled;
+        /** the time of last post if debounce, the time of last delivered if throttle */
+        final AtomicLong lastNanos;
+        /** if throttle, no message delivered yet */
+        volatile boolean first;
+
+        TimeFilter(Receiver receiver, int mode, long windowMillis) {
+            this.receiver = receiver;
+            this.mode = mode;
+            this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+            this.latest = new AtomicReference<>();
+            this.scheduled = new AtomicBoolean();
+            this.lastNanos = new AtomicLong();
+            this.first = true;
+        }
+
+        void filter(Message message) {
+            final long now = System.nanoTime();
+            if (mode == THROTTLE) {
+                final long last = lastNanos.get();
+                if ((first || now - last >= windowNanos) && lastNanos.compareAndSet(last, now)) {
+                    first = false;
+                    receiver.forward(message);
+                }
+                return;
+            }
+            lastNanos.set(now);
+            latest.set(message);
+            if (scheduled.compareAndSet(false, true)) {
+                getTimerWorker().schedule(this, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /** the timer is up */
+        @Override
+        public void call() {
+            if (mode == DEBOUNCE) {
+                final long quiet = System.nanoTime() - lastNanos.get();
+                if (quiet < windowNanos) {
+                    getTimerWorker().schedule(this, windowNanos - quiet, TimeUnit.NANOSECONDS);
+                    return;
+                }
+            }
+            scheduled.set(false);
+            final Message message = latest.getAndSet(null);
+            if (message != null && !receiver.cancelled) {
+                receiver.forward(message);
+            }
+        }
+    }
+
+    private static final class Message {
+        final int code;
+        final boolean isTypeInfoInParameters;
+        final Object[] parameters;
+        /** the arguments pass to target callback method, unpacked once from parameters if it has type info */
+        final Object[] arguments;
+
+        Message(int code, boolean isTypeInfoInParameters, Object[] parameters) {
+            this.code = code;
+            this.isTypeInfoInParameters = isTypeInfoInParameters;
+            this.parameters = parameters;
+            if (isTypeInfoInParameters) {
+                final int len = parameters.length / 2;
+                arguments = new Object[len];
+                for (int i = 0; i < len; ++i) {
+                    arguments[i] = parameters[(i << 1) + 1];
+                }
+            } else {
+                arguments = parameters;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Message message = (Message) o;
+            return code == message.code
+                    && isTypeInfoInParameters == message.isTypeInfoInParameters
+                    && Arrays.equals(parameters, message.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = code;
+            result = 31 * result + (isTypeInfoInParameters ? 1 : 0);
+            result = 31 * result + Arrays.hashCode(parameters);
+            return result;
+        }
+    }
+
+    /** identity of a subscriber, hold it strongly */
+    private static class SubscriberKey {
+        private final Object subscriber;
+        private final int hashCode;
+
+        SubscriberKey(Object subscriber) {
+            this.subscriber = subscriber;
+            this.hashCode = System.identityHashCode(subscriber);
+        }
+
+        /** for sub class which hold the subscriber by itself */
+        SubscriberKey(int hashCode) {
+            this.subscriber = null;
+            this.hashCode = hashCode;
+        }
+
+        Object get() {
+            return subscriber;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SubscriberKey)) {
+                return false;
+            }
+            final Object subscriber = get();
+            return subscriber != null && subscriber == ((SubscriberKey) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /** identity of a subscriber, hold it weakly, see {@link #registerWeak(Object)} */
+    private static final class WeakSubscriberKey extends SubscriberKey {
+        private final SubscriberReference reference;
+
+        WeakSubscriberKey(Object subscriber, ReferenceQueue<Object> referenceQueue) {
+            super(System.identityHashCode(subscriber));
+            this.reference = new SubscriberReference(subscriber, referenceQueue, this);
+        }
+
+        @Override
+        Object get() {
+            return reference.get();
+        }
+    }
+
+    private static final class SubscriberReference extends WeakReference<Object> {
+        final SubscriberKey subscriberKey;
+
+        SubscriberReference(Object subscriber, ReferenceQueue<Object> referenceQueue, SubscriberKey subscriberKey) {
+            super(subscriber, referenceQueue);
+            this.subscriberKey = subscriberKey;
+        }
+    }
+}
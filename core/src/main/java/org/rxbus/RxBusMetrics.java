@@ -0,0 +1,152 @@
+package org.rxbus;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link MetricsListener} which keep the metrics in memory for query: posts per code,
+ * a {@link LatencyHistogram} per target callback method, queue depth gauges, drop and error counters.
+ * A counter is created on the first event of its code or target callback method, and lookup by a concurrent map,
+ * so the cost of each event is a map lookup and a few atomic operations.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+public class RxBusMetrics implements MetricsListener {
+    private final ConcurrentHashMap<Integer, AtomicLong> postCounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Subscriber> subscribers = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPost(int code, int receivers) {
+        AtomicLong count = postCounts.get(code);
+        if (count == null) {
+            final AtomicLong newCount = new AtomicLong();
+            count = postCounts.putIfAbsent(code, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    @Override
+    public void onInvoke(int code, String subscriber, long nanos, Throwable error) {
+        final Subscriber metrics = getSubscriber(subscriber);
+        metrics.latency.record(nanos);
+        if (error != null) {
+            metrics.errors.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onDrop(int code, String subscriber, int reason) {
+        final Subscriber metrics = getSubscriber(subscriber);
+        if (reason == DROP_PARAMETERS_MISMATCH) {
+            metrics.mismatched.incrementAndGet();
+        } else {
+            metrics.overflowed.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onQueueDepth(String subscriber, int depth) {
+        final Subscriber metrics = getSubscriber(subscriber);
+        metrics.queueDepth.set(depth);
+        int max;
+        while (depth > (max = metrics.maxQueueDepth.get()) && !metrics.maxQueueDepth.compareAndSet(max, depth)) {
+            // retry
+        }
+    }
+
+    /** @return how many events posted to the code, include the ones no one received */
+    public long getPostCount(int code) {
+        final AtomicLong count = postCounts.get(code);
+        return count != null ? count.get() : 0L;
+    }
+
+    /** @return the codes had been posted */
+    public Set<Integer> getPostedCodes() {
+        return postCounts.keySet();
+    }
+
+    /** @return the signatures of target callback methods had been measured, see {@link MetricsListener} */
+    public Set<String> getSubscribers() {
+        return subscribers.keySet();
+    }
+
+    /** @return the run time in nanos of the target callback method, null if never called */
+    public LatencyHistogram getLatency(String subscriber) {
+        final Subscriber metrics = subscribers.get(subscriber);
+        return metrics != null ? metrics.latency : null;
+    }
+
+    /** @return how many calls of the target callback method threw */
+    public long getErrorCount(String subscriber) {
+        final Subscriber metrics = subscribers.get(subscriber);
+        return metrics != null ? metrics.errors.get() : 0L;
+    }
+
+    /** @return how many events to the target callback method dropped for the reason, see DROP_* */
+    public long getDropCount(String subscriber, int reason) {
+        final Subscriber metrics = subscribers.get(subscriber);
+        if (metrics == null) {
+            return 0L;
+        }
+        return reason == DROP_PARAMETERS_MISMATCH ? metrics.mismatched.get() : metrics.overflowed.get();
+    }
+
+    /** @return the pending events of the target callback method on last enqueue */
+    public int getQueueDepth(String subscriber) {
+        final Subscriber metrics = subscribers.get(subscriber);
+        return metrics != null ? metrics.queueDepth.get() : 0;
+    }
+
+    /** @return the max pending events of the target callback method ever seen on enqueue */
+    public int getMaxQueueDepth(String subscriber) {
+        final Subscriber metrics = subscribers.get(subscriber);
+        return metrics != null ? metrics.maxQueueDepth.get() : 0;
+    }
+
+    /** clear all metrics */
+    public void reset() {
+        postCounts.clear();
+        subscribers.clear();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RxBusMetrics{posts=").append(postCounts);
+        for (Map.Entry<String, Subscriber> entry : subscribers.entrySet()) {
+            final Subscriber metrics = entry.getValue();
+            sb.append(", ").append(entry.getKey()).append("={latency=").append(metrics.latency)
+                    .append(", errors=").append(metrics.errors)
+                    .append(", mismatched=").append(metrics.mismatched)
+                    .append(", overflowed=").append(metrics.overflowed)
+                    .append(", maxQueueDepth=").append(metrics.maxQueueDepth).append('}');
+        }
+        return sb.append('}').toString();
+    }
+
+    private Subscriber getSubscriber(String subscriber) {
+        Subscriber metrics = subscribers.get(subscriber);
+        if (metrics == null) {
+            final Subscriber newMetrics = new Subscriber();
+            metrics = subscribers.putIfAbsent(subscriber, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+        return metrics;
+    }
+
+    private static final class Subscriber {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong mismatched = new AtomicLong();
+        final AtomicLong overflowed = new AtomicLong();
+        final AtomicInteger queueDepth = new AtomicInteger();
+        final AtomicInteger maxQueueDepth = new AtomicInteger();
+    }
+}
@@ -0,0 +1,20 @@
+package org.rxbus;
+
+/**
+ * Notified when a target callback method run over the budget of the bus,
+ * see {@link RxBus.Builder#slowHandlerBudget(long, java.util.concurrent.TimeUnit)}.
+ * It is called on the thread of the target callback method right after it returned, so it must be fast.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+public interface SlowHandlerListener {
+    /**
+     * @param code the event code
+     * @param subscriber the signature of the target callback method, see {@link MetricsListener}
+     * @param nanos how long the target callback method run
+     * @param violations how many times the target callback method run over the budget, include this one
+     * @param isolated true if the target callback method is moved to the fallback executor by this violation,
+     *                 see {@link RxBus.Builder#isolateSlowHandlers(int, java.util.concurrent.Executor)}
+     */
+    void onSlowHandler(int code, String subscriber, long nanos, int violations, boolean isolated);
+}
@@ -0,0 +1,108 @@
+package org.rxbus;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation a target callback method.
+ * @author John Kenrinus Lee
+ * @version 2016-07-10
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Subscribe {
+    // TODO If replace with "String code();" on next version or not?
+    /**
+     * event code or command code. a target callback method receive the union of {@link #code()},
+     * {@link #codes()} and the range [{@link #codeFrom()}, {@link #codeTo()}], at least one of them must be set
+     */
+    int code() default NO_CODE;
+    /** more event codes */
+    int[] codes() default {};
+    /** the first code of a range of event codes, the range is empty by default */
+    int codeFrom() default 0;
+    /** the last code (inclusive) of a range of event codes, the range is empty by default */
+    int codeTo() default -1;
+    /**
+     * call target callback method on which thread, clamp in [0, Integer.MAX_VALUE),
+     * see SCHEDULER_* in this annotation, if custom it, just see SCHEDULER_FOR_FIRST_CUSTOM
+     */
+    int scheduler();
+    /**
+     * the receivers of a event are reached in descending priority, the equal ones in register order.
+     * a target callback method on {@link #SCHEDULER_CURRENT_THREAD} can stop the event to lower priority
+     * receivers by {@code RxBus#cancelDelivery()}
+     */
+    int priority() default 0;
+    /**
+     * max pending messages of a target callback method on async scheduler, 0 means unbounded,
+     * see {@link #overflow()} for what happen when it's full
+     */
+    int capacity() default 0;
+    /** what to do when post to a full target callback method, see OVERFLOW_* in this annotation */
+    int overflow() default OVERFLOW_DROP_NEWEST;
+    /**
+     * if true, a target callback method on async scheduler only keep the newest pending message of each code,
+     * a new message replace the undelivered one of the same code, for "latest state" events like progress.
+     * a conflated message is never blocked or dropped by {@link #capacity()} when posted
+     */
+    boolean conflate() default false;
+    /**
+     * deliver a message only after no other message posted to the target callback method for the millis,
+     * 0 means off. debounce, throttle and sample apply before the scheduler hop, if more than one set,
+     * debounce is prior to throttle, throttle is prior to sample.
+     * the delayed messages of {@link #SCHEDULER_CURRENT_THREAD} method are delivered on the timer thread
+     */
+    long debounceMillis() default 0L;
+    /** deliver a message and ignore the others posted to the target callback method for the millis, 0 means off */
+    long throttleMillis() default 0L;
+    /** deliver the newest message once every millis while messages posted to the target callback method */
+    long sampleMillis() default 0L;
+    /**
+     * if more than 1, a target callback method on async scheduler is split into the count of partitions which
+     * may be called in parallel, the messages are partitioned by the parameter at {@link #partitionKey()},
+     * so messages of equal key keep the post order. the partitions share the lane of the scheduler, so the
+     * parallelism is capped by how many drainers the lane allows: the cores for compute pool and custom
+     * schedulers, unbounded for new thread and io pool, 1 for main thread.
+     * capacity, overflow and conflate apply to each partition. register throw IllegalArgumentException if it is
+     * set on {@link #SCHEDULER_CURRENT_THREAD}
+     */
+    int partitions() default 0;
+    /**
+     * the index of the parameter whose hashCode decide the partition, see {@link #partitions()}.
+     * register throw IllegalArgumentException if there is no parameter at the index
+     */
+    int partitionKey() default 0;
+
+    /** the default of {@link #code()}, means not set, so it can't be a event code */
+    int NO_CODE = Integer.MIN_VALUE;
+
+    /** builtin scheduler, which call target method on current thread */
+    int SCHEDULER_CURRENT_THREAD = 0;
+    /** builtin scheduler, which call target method on new thread */
+    int SCHEDULER_NEW_THREAD = 1;
+    /** builtin scheduler, which call target method on io thread pool */
+    int SCHEDULER_IO_POOL_THREAD = 2;
+    /** builtin scheduler, which call target method on compute thread */
+    int SCHEDULER_COMPUTE_POOL_THREAD = 4;
+    /** builtin scheduler, which call target method on main thread, must bind by platform adapter before use */
+    int SCHEDULER_MAIN_THREAD = 8;
+    /** the first custom scheduler should large than the value */
+    int SCHEDULER_FOR_FIRST_CUSTOM = 1024;
+
+    /** overflow policy, drop the message being posted */
+    int OVERFLOW_DROP_NEWEST = 0;
+    /** overflow policy, drop the oldest pending message */
+    int OVERFLOW_DROP_OLDEST = 1;
+    /** overflow policy, drop all pending messages, keep the message being posted */
+    int OVERFLOW_KEEP_LATEST = 2;
+    /**
+     * overflow policy, block the posting thread until there is room,
+     * never post to the target callback method from its own scheduler, or else deadlock
+     */
+    int OVERFLOW_BLOCK = 3;
+}
@@ -0,0 +1,15 @@
+package org.rxbus;
+
+/**
+ * The {@code org.rxbus.Subscribe} methods declared by a subscriber class, implemented by the class
+ * {@code <subscriber class name>_RxBusIndex} which generated by the annotation processor in module compiler.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+public interface SubscriberIndex {
+    /** the suffix of the generated class name */
+    String CLASS_NAME_SUFFIX = "_RxBusIndex";
+
+    /** @return all {@code org.rxbus.Subscribe} methods declared by the subscriber class, not include super class */
+    SubscriberMethod[] getSubscriberMethods();
+}
@@ -0,0 +1,26 @@
+package org.rxbus;
+
+/**
+ * A {@code org.rxbus.Subscribe} method described by {@link SubscriberIndex}.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+public final class SubscriberMethod {
+    final String name;
+    final Class<?>[] parameterTypes;
+    final Subscribe subscribe;
+    final Invoker invoker;
+
+    /**
+     * @param name method name
+     * @param parameterTypes method parameter types
+     * @param subscribe the annotation values declared on the method
+     * @param invoker call the method directly, null if can not, e.g. private method
+     */
+    public SubscriberMethod(String name, Class<?>[] parameterTypes, Subscribe subscribe, Invoker invoker) {
+        this.name = name;
+        this.parameterTypes = parameterTypes;
+        this.subscribe = subscribe;
+        this.invoker = invoker;
+    }
+}
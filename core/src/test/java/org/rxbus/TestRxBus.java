@@ -0,0 +1,1082 @@
+package org.rxbus;
+
+import static junit.framework.Assert.fail;
+import static org.junit.Assert.*;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.*;
+
+import rx.schedulers.Schedulers;
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2016-07-11
+ */
+public class TestRxBus {
+    static final long TIME = 300L;
+    static final int CODE = 1094922;
+    static boolean flag;
+    static boolean beforeExecute;
+
+    @Test
+    public void doNormalTest() throws Exception {
+        StringCatcher catcher = new StringCatcher();
+        RxBus.singleInstance.register(catcher);
+        RxBus.singleInstance.post(StringCatcher.EVENT_ONE, "Hello World");
+        assertEquals("Only one String should be delivered.", 1, catcher.getEvents().size());
+        assertEquals("Hello World", catcher.getEvents().get(0));
+        RxBus.singleInstance.post(StringCatcher.EVENT_ONE, "Welcome");
+        assertEquals("Only two String should be delivered.", 2, catcher.getEvents().size());
+        assertEquals("Welcome", catcher.getEvents().get(1));
+        RxBus.singleInstance.register(catcher); // duplicate register
+        RxBus.singleInstance.post(StringCatcher.EVENT_ONE, "Shanghai");
+        assertEquals("Only three String should be delivered.", 3, catcher.getEvents().size());
+        assertEquals("Shanghai", catcher.getEvents().get(2));
+        StringCatcher catcher1 = new StringCatcher();
+        RxBus.singleInstance.register(catcher1); // the twice instance
+        RxBus.singleInstance.post(StringCatcher.EVENT_ONE, "Guangzhou");
+        assertEquals(1, catcher1.getEvents().size());
+        assertEquals("Guangzhou", catcher1.getEvents().get(0));
+        int count = 0;
+        for (String string : catcher.getEvents()) {
+            if (string.equals("Guangzhou")) {
+                ++count;
+            }
+        }
+        assertEquals("Only one Guangzhou in catcher", 1, count);
+        StringCatcher catcher2 = new StringCatcher() {
+            @Subscribe(code = EVENT_TWO, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void str2(String push) {
+                getEvents().add(push);
+            }
+            @Subscribe(code = EVENT_TWO, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void string2(String push) {
+                getEvents().add(push);
+            }
+        }; // inner class
+        RxBus.singleInstance.register(catcher2); // two target method in one instance
+        RxBus.singleInstance.post(StringCatcher.EVENT_TWO, "Two target");
+        assertEquals(2, catcher2.getEvents().size());
+        assertEquals("Two target", catcher2.getEvents().get(0));
+        assertEquals("Two target", catcher2.getEvents().get(1));
+        // test multi-param and private method and callback from io thread
+        ParamsFetcher paramsFetcher = new ParamsFetcher();
+        RxBus.singleInstance.register(paramsFetcher);
+        RxBus.singleInstance.post(ParamsFetcher.EVENT, "Zhang san", 22, true);
+        Thread.sleep(TIME); // because of onParam is async
+        assertEquals("Zhang san", paramsFetcher.getName());
+        assertEquals(22, paramsFetcher.getAge());
+        assertEquals(true, paramsFetcher.isStudent());
+        // test unregister
+        flag = false;
+        Object object = new Object() {
+            @Subscribe(code = CODE, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void haha() {
+                flag = true;
+            }
+        };
+        RxBus.singleInstance.register(object);
+        RxBus.singleInstance.post(CODE);
+        assertEquals(true, flag);
+        flag = false;
+        RxBus.singleInstance.unregister(object);
+        RxBus.singleInstance.post(CODE);
+        assertEquals(false, flag);
+        flag = false;
+        RxBus.singleInstance.register(object);
+        RxBus.singleInstance.post(CODE); // no sleep, because of register is visible at once
+        assertEquals(true, flag);
+        // test sync
+        RxBus.singleInstance.unregisterSync(object);
+        flag = false;
+        RxBus.singleInstance.post(CODE);
+        assertEquals(false, flag);
+        Thread.sleep(TIME);
+        RxBus.singleInstance.post(CODE);
+        assertEquals(false, flag);
+        flag = false;
+        RxBus.singleInstance.registerSync(object);
+        RxBus.singleInstance.post(CODE); // no sleep, because of sync
+        assertEquals(true, flag);
+        // test custom scheduler
+        flag = false;
+        beforeExecute = false;
+        ThreadPoolExecutor poolExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>()) {
+            @Override
+            protected void beforeExecute(Thread t, Runnable r) {
+                beforeExecute = true;
+            }
+        };
+        RxBus.singleInstance.addSchedulerWithId(Subscribe.SCHEDULER_FOR_FIRST_CUSTOM + 1,
+                Schedulers.from(poolExecutor));
+        Object customSchedulerObj = new Object() {
+            @Subscribe(code = 45530, scheduler = Subscribe.SCHEDULER_FOR_FIRST_CUSTOM + 1)
+            public void custom() {
+                flag = true;
+            }
+        };
+        RxBus.singleInstance.registerSync(customSchedulerObj);
+        RxBus.singleInstance.post(45530);
+        Thread.sleep(TIME);
+        assertEquals(true, flag);
+        assertEquals(true, beforeExecute);
+    }
+
+    @Test
+    public void doExceptionTest() {
+        try {
+            RxBus.singleInstance.register(null);
+            fail("Should have thrown an NullPointerException on register.");
+        } catch (NullPointerException e) {
+        }
+        try {
+            RxBus.singleInstance.registerSync(null);
+            fail("Should have thrown an NullPointerException on register.");
+        } catch (NullPointerException e) {
+        }
+        try {
+            RxBus.singleInstance.unregister(null);
+        } catch (NullPointerException e) {
+            fail("Should not have thrown an NullPointerException on unregister.");
+        }
+        try {
+            RxBus.singleInstance.unregisterSync(null);
+        } catch (NullPointerException e) {
+            fail("Should not have thrown an NullPointerException on unregister.");
+        }
+        AmbiguousFetcher fetcher = new AmbiguousFetcher();
+        RxBus.singleInstance.registerSync(fetcher);
+        fetcher.setFromString(null);
+        RxBus.singleInstance.post(AmbiguousFetcher.AMBIGUOUS, null);
+        assertEquals(null, fetcher.getFromString());
+        RxBus.singleInstance.post(AmbiguousFetcher.AMBIGUOUS, (Object[])null);
+        assertEquals(null, fetcher.getFromString());
+        RxBus.singleInstance.post(AmbiguousFetcher.AMBIGUOUS, (String)null);
+        assertEquals(null, fetcher.getFromString());
+        fetcher.setFromString(null);
+        RxBus.singleInstance.postWithType(AmbiguousFetcher.AMBIGUOUS, String.class, null);
+        assertEquals(true, fetcher.getFromString());
+        fetcher.setFromString(null);
+        RxBus.singleInstance.postWithType(AmbiguousFetcher.AMBIGUOUS, Integer.class, null);
+        assertEquals(false, fetcher.getFromString());
+        fetcher.setFromString(null);
+        RxBus.singleInstance.postWithType(AmbiguousFetcher.AMBIGUOUS, Object[].class, null);
+        assertEquals(null, fetcher.getFromString());
+        fetcher.setFromString(null);
+        RxBus.singleInstance.post(AmbiguousFetcher.AMBIGUOUS, 3);
+        assertEquals(false, fetcher.getFromString());
+        fetcher.setFromString(null);
+        RxBus.singleInstance.post(AmbiguousFetcher.AMBIGUOUS, 3.0f);
+        assertEquals(null, fetcher.getFromString());
+        fetcher.setFromString(null);
+        RxBus.singleInstance.post(AmbiguousFetcher.AMBIGUOUS, "DAO");
+        assertEquals(true, fetcher.getFromString());
+        RxBus.singleInstance.post(AmbiguousFetcher.NULL, null, "Lee");
+        assertEquals("a", fetcher.getA());
+        assertEquals("b", fetcher.getB());
+        RxBus.singleInstance.postWithType(AmbiguousFetcher.NULL, String.class, null, String.class, "Lee");
+        assertEquals(null, fetcher.getA());
+        assertEquals("Lee", fetcher.getB());
+    }
+
+    @Test
+    public void doBatchTest() throws Exception {
+        final List<String> events = Collections.synchronizedList(new ArrayList<String>());
+        Object asyncObj = new Object() {
+            @Subscribe(code = -40001, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD)
+            public void first(String event) {
+                events.add(event);
+            }
+            @Subscribe(code = -40002, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD)
+            public void second(String event) {
+                events.add(event);
+            }
+        };
+        RxBus.singleInstance.registerSync(asyncObj);
+        RxBus.singleInstance.beginBatch()
+                .post(-40001, "a")
+                .post(-40002, "b")
+                .post(-40001, 3) // discard because of parameters not matches
+                .postWithType(-40001, String.class, "c")
+                .commit();
+        Thread.sleep(TIME);
+        assertEquals(3, events.size());
+        assertTrue(events.indexOf("a") < events.indexOf("c"));
+        assertTrue(events.contains("b"));
+        RxBus.singleInstance.unregisterSync(asyncObj);
+    }
+
+    @Test
+    public void doWeakTest() throws Exception {
+        flag = false;
+        Object object = new Object() {
+            @Subscribe(code = -50001, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void weak() {
+                flag = true;
+            }
+        };
+        RxBus.singleInstance.registerWeakSync(object);
+        RxBus.singleInstance.post(-50001);
+        assertEquals(true, flag);
+        RxBus.singleInstance.registerSync(object); // duplicate register
+        RxBus.singleInstance.unregisterSync(object);
+        flag = false;
+        RxBus.singleInstance.post(-50001);
+        assertEquals(false, flag);
+        RxBus.singleInstance.registerWeakSync(object);
+        WeakReference<Object> reference = new WeakReference<>(object);
+        object = null;
+        for (int i = 0; i < 10 && reference.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertNull("Weak registered subscriber should be garbage collected", reference.get());
+        RxBus.singleInstance.post(-50001); // remove dead subscriber
+        assertEquals(false, flag);
+    }
+
+    @Test
+    public void doMainThreadTest() throws Exception {
+        final Thread mainThread = Thread.currentThread();
+        final Thread[] threads = new Thread[1];
+        Object object = new Object() {
+            @Subscribe(code = -60001, scheduler = Subscribe.SCHEDULER_MAIN_THREAD)
+            public void onMain() {
+                threads[0] = Thread.currentThread();
+            }
+        };
+        RxBus.singleInstance.setMainThreadScheduler(Schedulers.immediate());
+        RxBus.singleInstance.registerSync(object);
+        RxBus.singleInstance.post(-60001);
+        RxBus.singleInstance.unregisterSync(object);
+        RxBus.singleInstance.setMainThreadScheduler(null);
+        assertSame(mainThread, threads[0]);
+    }
+
+    @Test
+    public void doBuilderTest() throws Exception {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        final LinkedBlockingQueue<Thread> threads = new LinkedBlockingQueue<>();
+        final Thread[] executorThread = new Thread[1];
+        executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                executorThread[0] = Thread.currentThread();
+            }
+        }).get();
+        RxBus rxBus = RxBus.builder().executor(executor).build();
+        Object object = new Object() {
+            @Subscribe(code = -70001, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD)
+            public void onCompute() {
+                threads.add(Thread.currentThread());
+            }
+        };
+        rxBus.registerSync(object);
+        RxBus.singleInstance.post(-70001); // isolated from the default bus
+        rxBus.post(-70001);
+        assertSame(executorThread[0], threads.poll(TIME, TimeUnit.MILLISECONDS));
+        assertNull(threads.poll(TIME, TimeUnit.MILLISECONDS));
+        rxBus.unregisterSync(object);
+        executor.shutdown();
+    }
+
+    @Test
+    public void doOverflowTest() throws Exception {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(new Runnable() { // keep the lane busy until all posted
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        final List<Integer> newest = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> oldest = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> latest = Collections.synchronizedList(new ArrayList<Integer>());
+        RxBus rxBus = RxBus.builder().executor(executor).build();
+        Object object = new Object() {
+            @Subscribe(code = -80001, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD, capacity = 2,
+                    overflow = Subscribe.OVERFLOW_DROP_NEWEST)
+            public void dropNewest(int value) {
+                newest.add(value);
+            }
+
+            @Subscribe(code = -80002, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD, capacity = 2,
+                    overflow = Subscribe.OVERFLOW_DROP_OLDEST)
+            public void dropOldest(int value) {
+                oldest.add(value);
+            }
+
+            @Subscribe(code = -80003, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD, capacity = 2,
+                    overflow = Subscribe.OVERFLOW_KEEP_LATEST)
+            public void keepLatest(int value) {
+                latest.add(value);
+            }
+        };
+        rxBus.registerSync(object);
+        for (int i = 1; i <= 5; ++i) {
+            rxBus.post(-80001, i);
+            rxBus.post(-80002, i);
+            rxBus.post(-80003, i);
+        }
+        assertEquals(3L + 3L + 4L, rxBus.getDroppedCount(object));
+        latch.countDown();
+        executor.shutdown();
+        executor.awaitTermination(TIME, TimeUnit.MILLISECONDS);
+        assertEquals(Arrays.asList(1, 2), newest);
+        assertEquals(Arrays.asList(4, 5), oldest);
+        assertEquals(Arrays.asList(5), latest);
+        assertEquals(10L, rxBus.getDroppedCount());
+        rxBus.unregisterSync(object);
+    }
+
+    @Test
+    public void doConflateTest() throws Exception {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(new Runnable() { // keep the lane busy until all posted
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        final List<Integer> annotated = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> byCode = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> mixed = Collections.synchronizedList(new ArrayList<Integer>());
+        RxBus rxBus = RxBus.builder().executor(executor).conflate(-90002).build();
+        Object object = new Object() {
+            @Subscribe(codes = { -90001, -90004 }, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD,
+                    conflate = true)
+            public void onAnnotated(int value) {
+                annotated.add(value);
+            }
+
+            @Subscribe(code = -90002, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD)
+            public void onCode(int value) {
+                byCode.add(value);
+            }
+
+            @Subscribe(codes = { -90002, -90003 }, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD)
+            public void onMixed(int value) {
+                mixed.add(value);
+            }
+        };
+        rxBus.registerSync(object);
+        for (int i = 1; i <= 5; ++i) {
+            rxBus.post(-90001, i);
+            rxBus.post(-90004, 10 + i);
+            rxBus.post(-90002, i);
+            rxBus.post(-90003, 10 + i);
+        }
+        latch.countDown();
+        executor.shutdown();
+        executor.awaitTermination(TIME, TimeUnit.MILLISECONDS);
+        assertEquals("Each code conflate in its own slot", Arrays.asList(5, 15), annotated);
+        assertEquals(Arrays.asList(5), byCode);
+        assertEquals(Arrays.asList(5, 11, 12, 13, 14, 15), mixed);
+        assertEquals(0L, rxBus.getDroppedCount());
+        rxBus.unregisterSync(object);
+    }
+
+    @Test
+    public void doStickyTest() {
+        final List<String> events = new ArrayList<>();
+        RxBus rxBus = RxBus.builder().build();
+        Object object = new Object() {
+            @Subscribe(code = -100001, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void onSticky(String value) {
+                events.add(value);
+            }
+        };
+        rxBus.postSticky(-100001, "first");
+        rxBus.postSticky(-100001, "second");
+        rxBus.registerSync(object);
+        assertEquals(Collections.singletonList("second"), events);
+        rxBus.post(-100001, "third");
+        assertEquals(Arrays.asList("second", "third"), events);
+        rxBus.unregisterSync(object);
+        assertTrue(rxBus.removeSticky(-100001));
+        assertFalse(rxBus.removeSticky(-100001));
+        rxBus.registerSync(object);
+        assertEquals(Arrays.asList("second", "third"), events);
+        rxBus.unregisterSync(object);
+
+        final TreeSet<String> replayed = new TreeSet<>();
+        Object ranged = new Object() {
+            @Subscribe(codes = { -100002, -100012 }, codeFrom = -100005, codeTo = -100003,
+                    scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void onSticky(String value) {
+                replayed.add(value);
+            }
+        };
+        rxBus.postSticky(-100002, "exact");
+        rxBus.postSticky(-100004, "range");
+        rxBus.postSticky(-100006, "outside");
+        rxBus.registerSync(ranged);
+        assertEquals(new TreeSet<>(Arrays.asList("exact", "range")), replayed);
+        rxBus.unregisterSync(ranged);
+        rxBus.removeAllSticky();
+
+        final RxBus racingBus = RxBus.builder().build();
+        final Thread poster = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 20000; ++i) {
+                    racingBus.postSticky(-100021, i);
+                }
+            }
+        });
+        poster.start();
+        while (poster.isAlive()) {
+            final List<Integer> received = Collections.synchronizedList(new ArrayList<Integer>());
+            Object racing = new Object() {
+                @Subscribe(code = -100021, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+                public void onSticky(Integer value) {
+                    received.add(value);
+                }
+            };
+            racingBus.register(racing);
+            Thread.yield();
+            racingBus.unregister(racing);
+            synchronized (received) {
+                assertEquals("A sticky event must reach a receiver once", new HashSet<>(received).size(),
+                        received.size());
+            }
+        }
+    }
+
+    @Test
+    public void doTimeFilterTest() throws Exception {
+        final List<Integer> debounced = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> throttled = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Integer> sampled = Collections.synchronizedList(new ArrayList<Integer>());
+        RxBus rxBus = RxBus.builder().build();
+        Object object = new Object() {
+            @Subscribe(code = -110001, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD, debounceMillis = 100L)
+            public void onDebounce(int value) {
+                debounced.add(value);
+            }
+
+            @Subscribe(code = -110002, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD, throttleMillis = TIME * 10)
+            public void onThrottle(int value) {
+                throttled.add(value);
+            }
+
+            @Subscribe(code = -110003, scheduler = Subscribe.SCHEDULER_IO_POOL_THREAD, sampleMillis = 100L)
+            public void onSample(int value) {
+                sampled.add(value);
+            }
+        };
+        rxBus.registerSync(object);
+        for (int i = 1; i <= 5; ++i) {
+            rxBus.post(-110001, i);
+            rxBus.post(-110002, i);
+            rxBus.post(-110003, i);
+        }
+        assertEquals(Collections.emptyList(), debounced);
+        assertEquals(Collections.singletonList(1), throttled);
+        Thread.sleep(TIME);
+        assertEquals(Collections.singletonList(5), debounced);
+        assertEquals(Collections.singletonList(5), sampled);
+        rxBus.unregisterSync(object);
+    }
+
+    @Test
+    public void doMultiCodeTest() {
+        final List<String> events = new ArrayList<>();
+        RxBus rxBus = RxBus.builder().build();
+        Object object = new Object() {
+            @Subscribe(codes = { -120001, -120002, -120007 }, codeFrom = -120010, codeTo = -120005,
+                    scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void onMulti(String value) {
+                events.add("multi" + value);
+            }
+
+            @Subscribe(code = -120002, codeFrom = -120006, codeTo = -120003,
+                    scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void onOverlap(String value) {
+                events.add("overlap" + value);
+            }
+        };
+        rxBus.registerSync(object);
+        for (int code = -120000; code >= -120011; --code) {
+            rxBus.post(code, String.valueOf(code));
+        }
+        assertEquals(new TreeSet<>(Arrays.asList("multi-120001", "multi-120002", "overlap-120002",
+                "overlap-120003", "overlap-120004", "multi-120005", "overlap-120005", "multi-120006",
+                "overlap-120006", "multi-120007", "multi-120008", "multi-120009", "multi-120010")),
+                new TreeSet<>(events)); // methods of a class are registered in no particular order
+        assertEquals(13, events.size());
+        rxBus.unregisterSync(object);
+        events.clear();
+        for (int code = -120000; code >= -120011; --code) {
+            rxBus.post(code, String.valueOf(code));
+        }
+        assertEquals(Collections.emptyList(), events);
+    }
+
+    @Test
+    public void doPriorityTest() {
+        final List<String> events = new ArrayList<>();
+        final RxBus rxBus = RxBus.builder().build();
+        Object low = new Object() {
+            @Subscribe(code = -130001, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD, priority = -1)
+            public void onLow(String value) {
+                events.add("low" + value);
+            }
+        };
+        Object high = new Object() {
+            @Subscribe(code = -130001, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD, priority = 10)
+            public void onHigh(String value) {
+                events.add("high" + value);
+                if ("cancel".equals(value)) {
+                    assertTrue(rxBus.cancelDelivery());
+                }
+            }
+        };
+        Object normal = new Object() {
+            @Subscribe(codeFrom = -130002, codeTo = -130001, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void onNormal(String value) {
+                events.add("normal" + value);
+                if ("a".equals(value)) {
+                    rxBus.post(-130002, "nested");
+                } else if ("nested".equals(value)) {
+                    assertFalse("The only receiver of a nested post must not cancel the outer post",
+                            rxBus.cancelDelivery());
+                }
+            }
+        };
+        rxBus.registerSync(low);
+        rxBus.registerSync(normal);
+        rxBus.registerSync(high);
+        rxBus.post(-130001, "a");
+        assertEquals(Arrays.asList("higha", "normala", "normalnested", "lowa"), events);
+        events.clear();
+        rxBus.post(-130001, "cancel");
+        assertEquals(Arrays.asList("highcancel"), events);
+        assertFalse(rxBus.cancelDelivery());
+        rxBus.unregisterSync(low);
+        rxBus.unregisterSync(normal);
+        rxBus.unregisterSync(high);
+
+        events.clear();
+        Object range = new Object() {
+            @Subscribe(codeFrom = -130020, codeTo = -130010, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void onRange(String value) {
+                events.add("range" + value);
+            }
+        };
+        Object exact = new Object() {
+            @Subscribe(code = -130015, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void onExact(String value) {
+                events.add("exact" + value);
+            }
+        };
+        rxBus.registerSync(range);
+        rxBus.registerSync(exact);
+        rxBus.post(-130015, "b");
+        assertEquals("The equal priorities must be reached in register order",
+                Arrays.asList("rangeb", "exactb"), events);
+        rxBus.unregisterSync(range);
+        rxBus.unregisterSync(exact);
+    }
+
+    @Test
+    public void doPartitionTest() throws Exception {
+        final int entities = 8;
+        final int count = 200;
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(4, 4, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        final List<List<Integer>> sequences = new ArrayList<>();
+        for (int i = 0; i < entities; ++i) {
+            sequences.add(Collections.synchronizedList(new ArrayList<Integer>()));
+        }
+        final CountDownLatch latch = new CountDownLatch(entities * count);
+        RxBus rxBus = RxBus.builder().executor(executor).build();
+        Object object = new Object() {
+            @Subscribe(code = -140001, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD, partitions = 4,
+                    partitionKey = 1)
+            public void onPartition(int sequence, Integer entity) {
+                sequences.get(entity).add(sequence);
+                latch.countDown();
+            }
+        };
+        rxBus.registerSync(object);
+        for (int sequence = 0; sequence < count; ++sequence) {
+            for (int entity = 0; entity < entities; ++entity) {
+                rxBus.post(-140001, sequence, entity);
+            }
+        }
+        assertTrue(latch.await(TIME * 10, TimeUnit.MILLISECONDS));
+        for (List<Integer> sequence : sequences) {
+            assertEquals(count, sequence.size());
+            for (int i = 0; i < count; ++i) {
+                assertEquals(i, (int) sequence.get(i));
+            }
+        }
+        rxBus.unregisterSync(object);
+        executor.shutdown();
+
+        try {
+            rxBus.register(new Object() {
+                @Subscribe(code = -140002, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD, partitions = 4,
+                        partitionKey = 2)
+                public void onPartition(int sequence, Integer entity) {
+                }
+            });
+            fail("Should have thrown an IllegalArgumentException on partitionKey out of parameters.");
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            rxBus.register(new Object() {
+                @Subscribe(code = -140002, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD, partitions = 4)
+                public void onPartition(Integer entity) {
+                }
+            });
+            fail("Should have thrown an IllegalArgumentException on partitions of current thread.");
+        } catch (IllegalArgumentException e) {
+        }
+        assertFalse(rxBus.hasSubscribers(-140002));
+    }
+
+    @Test
+    public void doPrimitiveTest() {
+        PrimitiveFetcher fetcher = new PrimitiveFetcher();
+        RxBus.singleInstance.registerSync(fetcher);
+        RxBus.singleInstance.post(PrimitiveFetcher.INT, 7);
+        assertEquals("[Integer:7, int:7, long:7]", fetcher.getEvents());
+        fetcher.clear();
+        RxBus.singleInstance.post(PrimitiveFetcher.INT, 7L);
+        assertEquals("[long:7]", fetcher.getEvents());
+        fetcher.clear();
+        RxBus.singleInstance.post(PrimitiveFetcher.INT, (byte) 7);
+        assertEquals("[byte:7, int:7, long:7]", fetcher.getEvents());
+        fetcher.clear();
+        RxBus.singleInstance.post(PrimitiveFetcher.DOUBLE, 0.5);
+        assertEquals("[double:0.5]", fetcher.getEvents());
+        fetcher.clear();
+        RxBus.singleInstance.post(PrimitiveFetcher.DOUBLE, 0.5f);
+        assertEquals("[double:0.5, float:0.5]", fetcher.getEvents());
+        fetcher.clear();
+        RxBus.singleInstance.post(PrimitiveFetcher.DOUBLE, true);
+        assertEquals("[boolean:true]", fetcher.getEvents());
+        RxBus.singleInstance.unregisterSync(fetcher);
+    }
+
+    @Test
+    public void doMetricsTest() throws Exception {
+        final RxBusMetrics metrics = new RxBusMetrics();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(3);
+        RxBus rxBus = RxBus.builder().metricsListener(metrics).build();
+        Object object = new Object() {
+            @Subscribe(code = -150001, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void onSync(String value) {
+                if ("error".equals(value)) {
+                    throw new IllegalStateException(value);
+                }
+            }
+
+            @Subscribe(code = -150002, scheduler = Subscribe.SCHEDULER_IO_POOL_THREAD, capacity = 2)
+            public void onAsync(int value) throws InterruptedException {
+                started.countDown();
+                gate.await();
+                done.countDown();
+            }
+        };
+        final String sync = object.getClass().getName() + "#onSync(java.lang.String;)";
+        final String async = object.getClass().getName() + "#onAsync(int;)";
+        rxBus.registerSync(object);
+        rxBus.post(-150001, "a");
+        rxBus.post(-150001, "error"); // reported to metrics rather than printed
+        rxBus.post(-150001, 1); // parameters mismatch
+        rxBus.post(-150003, "nobody");
+        rxBus.post(-150002, 0);
+        assertTrue(started.await(TIME, TimeUnit.MILLISECONDS));
+        for (int i = 1; i <= 4; ++i) {
+            rxBus.post(-150002, i); // 1 and 2 pending, 3 and 4 dropped
+        }
+        gate.countDown();
+        assertTrue(done.await(TIME, TimeUnit.MILLISECONDS));
+        final LatencyHistogram asyncLatency = metrics.getLatency(async);
+        for (int i = 0; i < 10 && asyncLatency.getCount() < 3; ++i) {
+            Thread.sleep(TIME / 10); // recorded after the method return
+        }
+        assertEquals(3L, metrics.getPostCount(-150001));
+        assertEquals(5L, metrics.getPostCount(-150002));
+        assertEquals(1L, metrics.getPostCount(-150003));
+        assertEquals(2L, metrics.getLatency(sync).getCount());
+        assertEquals(1L, metrics.getErrorCount(sync));
+        assertEquals(1L, metrics.getDropCount(sync, MetricsListener.DROP_PARAMETERS_MISMATCH));
+        assertEquals(3L, asyncLatency.getCount());
+        assertTrue(asyncLatency.getMax() > 0L);
+        assertEquals(2L, metrics.getDropCount(async, MetricsListener.DROP_OVERFLOW));
+        assertEquals(2, metrics.getMaxQueueDepth(async));
+        rxBus.unregisterSync(object);
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1L; value <= 1000L; ++value) {
+            histogram.record(value * 1000L);
+        }
+        assertEquals(1000L, histogram.getCount());
+        assertEquals(1000000L, histogram.getMax());
+        assertEquals(500500.0, histogram.getMean(), 0.1);
+        final long p50 = histogram.getValueAtPercentile(50.0);
+        assertTrue(p50 >= 500000L && p50 <= 500000L * 33 / 32);
+        assertEquals(1000000L, histogram.getValueAtPercentile(100.0));
+        final long p0 = histogram.getValueAtPercentile(0.0);
+        assertTrue(p0 >= 1000L && p0 <= 1000L * 33 / 32);
+    }
+
+    @Test
+    public void doSlowHandlerTest() throws Exception {
+        final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+        final List<Integer> values = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<String> reports = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch latch = new CountDownLatch(4);
+        final ThreadPoolExecutor fallback = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        return new Thread(r, "fallback");
+                    }
+                });
+        RxBus rxBus = RxBus.builder()
+                .slowHandlerBudget(5L, TimeUnit.MILLISECONDS)
+                .slowHandlerListener(new SlowHandlerListener() {
+                    @Override
+                    public void onSlowHandler(int code, String subscriber, long nanos, int violations,
+                                              boolean isolated) {
+                        reports.add(subscriber.substring(subscriber.indexOf('#') + 1) + ':' + violations + ':'
+                                + isolated);
+                    }
+                })
+                .isolateSlowHandlers(1, fallback)
+                .build();
+        Object object = new Object() {
+            @Subscribe(code = -160001, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD)
+            public void onSlow(int value) throws InterruptedException {
+                threads.add(Thread.currentThread().getName());
+                values.add(value);
+                Thread.sleep(20L);
+                latch.countDown();
+            }
+
+            @Subscribe(code = -160002, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void onSlowSync() throws InterruptedException {
+                Thread.sleep(10L);
+            }
+
+            @Subscribe(code = -160003, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void onFast() {
+            }
+        };
+        rxBus.registerSync(object);
+        for (int i = 0; i < 4; ++i) {
+            rxBus.post(-160001, i);
+        }
+        assertTrue(latch.await(TIME, TimeUnit.MILLISECONDS));
+        assertEquals(Arrays.asList(0, 1, 2, 3), values);
+        assertNotEquals("fallback", threads.get(0));
+        assertEquals(Arrays.asList("fallback", "fallback", "fallback"), threads.subList(1, 4));
+        Thread.sleep(TIME / 10); // the last report is after the method return
+        rxBus.post(-160002);
+        rxBus.post(-160003);
+        assertEquals(Arrays.asList("onSlow(int;):1:true", "onSlow(int;):2:false", "onSlow(int;):3:false",
+                "onSlow(int;):4:false", "onSlowSync():1:false"), reports);
+        rxBus.unregisterSync(object);
+        fallback.shutdown();
+    }
+
+    @Test
+    public void doDeadEventTest() {
+        RxBus rxBus = RxBus.builder().deadEvents(2).build();
+        Object object = new Object() {
+            @Subscribe(code = -170001, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+            public void onString(String value) {
+            }
+        };
+        rxBus.registerSync(object);
+        assertTrue(rxBus.hasSubscribers(-170001));
+        assertFalse(rxBus.hasSubscribers(-170002));
+        rxBus.post(-170002, "a"); // no subscriber
+        rxBus.post(-170001, 1); // parameters mismatch
+        rxBus.post(-170001, "ok");
+        rxBus.post(-170002, 5);
+        rxBus.beginBatch().post(-170002, "b").post(-170001, "ok").commit();
+        assertEquals(3L, rxBus.getDeadEventCount(-170002));
+        assertEquals(1L, rxBus.getDeadEventCount(-170001));
+        DeadEvent deadEvent = rxBus.pollDeadEvent(); // the oldest ones are discarded
+        assertEquals(-170002, deadEvent.getCode());
+        assertArrayEquals(new Object[] { 5 }, deadEvent.getEvents());
+        deadEvent = rxBus.pollDeadEvent();
+        assertEquals(-170002, deadEvent.getCode());
+        assertArrayEquals(new Object[] { "b" }, deadEvent.getEvents());
+        assertNull(rxBus.pollDeadEvent());
+        rxBus.postWithType(-170001, String.class); // not in pairs of type and parameter
+        rxBus.postStickyWithType(-170001, (Object[]) null);
+        rxBus.beginBatch().postWithType(-170001, String.class, "c", String.class).commit();
+        assertEquals(4L, rxBus.getDeadEventCount(-170001));
+        assertFalse(rxBus.removeSticky(-170001));
+        deadEvent = rxBus.pollDeadEvent();
+        assertEquals(-170001, deadEvent.getCode());
+        assertNull(deadEvent.getEvents());
+        deadEvent = rxBus.pollDeadEvent();
+        assertArrayEquals(new Object[] { String.class, "c", String.class }, deadEvent.getEvents());
+        rxBus.unregisterSync(object);
+
+        rxBus = RxBus.builder().build();
+        rxBus.post(-170002, "a");
+        assertEquals(0L, rxBus.getDeadEventCount(-170002));
+        assertNull(rxBus.pollDeadEvent());
+    }
+
+    @Test
+    public void doBulkRegisterTest() {
+        RxBus rxBus = RxBus.builder().build();
+        StringCatcher catcher1 = new StringCatcher();
+        StringCatcher catcher2 = new StringCatcher();
+        StringCatcher catcher3 = new StringCatcher();
+        try {
+            rxBus.registerAll(Arrays.asList(catcher1, null));
+            fail("Should have thrown an NullPointerException on registerAll.");
+        } catch (NullPointerException e) {
+        }
+        rxBus.post(StringCatcher.EVENT_ONE, "none"); // none is registered
+        rxBus.registerAll(Arrays.asList(catcher1, catcher2, catcher1)); // duplicate register
+        rxBus.post(StringCatcher.EVENT_ONE, "all");
+        assertEquals(Collections.singletonList("all"), catcher1.getEvents());
+        assertEquals(Collections.singletonList("all"), catcher2.getEvents());
+        rxBus.unregisterAll(Arrays.asList(catcher1, catcher2, null));
+        rxBus.post(StringCatcher.EVENT_ONE, "nobody");
+        assertEquals(1, catcher1.getEvents().size());
+        assertEquals(1, catcher2.getEvents().size());
+
+        RxBus.Scope scope = rxBus.newScope().registerAll(Arrays.asList(catcher1, catcher2)).register(catcher3);
+        rxBus.post(StringCatcher.EVENT_ONE, "scope");
+        assertEquals(Arrays.asList("all", "scope"), catcher1.getEvents());
+        assertEquals(Arrays.asList("all", "scope"), catcher2.getEvents());
+        assertEquals(Collections.singletonList("scope"), catcher3.getEvents());
+        scope.close();
+        rxBus.post(StringCatcher.EVENT_ONE, "closed");
+        assertEquals(2, catcher1.getEvents().size());
+        assertEquals(1, catcher3.getEvents().size());
+        scope.register(catcher3); // reuse
+        rxBus.post(StringCatcher.EVENT_ONE, "again");
+        assertEquals(2, catcher1.getEvents().size());
+        assertEquals(Arrays.asList("scope", "again"), catcher3.getEvents());
+        scope.close();
+    }
+
+    @Test
+    public void doLaneParallelTest() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CountDownLatch free = new CountDownLatch(1);
+        RxBus rxBus = RxBus.builder().build();
+        Object object = new Object() {
+            @Subscribe(code = -190001, scheduler = Subscribe.SCHEDULER_IO_POOL_THREAD)
+            public void onBlock() throws InterruptedException {
+                blocked.countDown();
+                gate.await();
+            }
+
+            @Subscribe(code = -190002, scheduler = Subscribe.SCHEDULER_IO_POOL_THREAD)
+            public void onFree() {
+                free.countDown();
+            }
+        };
+        rxBus.register(object);
+        rxBus.post(-190001);
+        assertTrue(blocked.await(TIME, TimeUnit.MILLISECONDS));
+        rxBus.post(-190002);
+        assertTrue("A blocked receiver must not hold up the others on its scheduler",
+                free.await(TIME, TimeUnit.MILLISECONDS));
+        gate.countDown();
+        rxBus.unregister(object);
+    }
+
+    @Test
+    public void doDrainErrorTest() throws Exception {
+        final CountDownLatch done = new CountDownLatch(2);
+        RxBus rxBus = RxBus.builder()
+                .metricsListener(new RxBusMetrics() {
+                    @Override
+                    public void onPost(int code, int receivers) {
+                        throw new IllegalStateException("broken listener");
+                    }
+                })
+                .build();
+        FailFetcher fetcher = new FailFetcher(done);
+        rxBus.register(fetcher);
+        rxBus.post(FailFetcher.FAIL, "fail");
+        rxBus.post(FailFetcher.PASS, "pass");
+        rxBus.post(FailFetcher.FAIL, "fail");
+        rxBus.post(FailFetcher.PASS, "pass");
+        assertTrue("An Error escaped from a callback must not stall the receiver",
+                done.await(TIME, TimeUnit.MILLISECONDS));
+        rxBus.unregister(fetcher);
+    }
+
+    public static class FailFetcher {
+        public static final int FAIL = -200001;
+        public static final int PASS = -200002;
+        private final CountDownLatch done;
+
+        public FailFetcher(CountDownLatch done) {
+            this.done = done;
+        }
+
+        @Subscribe(codes = { FAIL, PASS }, scheduler = Subscribe.SCHEDULER_COMPUTE_POOL_THREAD)
+        public void onEvent(String event) {
+            if ("fail".equals(event)) {
+                throw new AssertionError("fail on purpose");
+            }
+            done.countDown();
+        }
+    }
+
+    public static class PrimitiveFetcher {
+        public static final int INT = -30001;
+        public static final int DOUBLE = -30002;
+        private final TreeSet<String> events = new TreeSet<>();
+
+        @Subscribe(code = INT, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+        public void onInt(int value) {
+            events.add("int:" + value);
+        }
+
+        @Subscribe(code = INT, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+        public void onInteger(Integer value) {
+            events.add("Integer:" + value);
+        }
+
+        @Subscribe(code = INT, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+        public void onLong(long value) {
+            events.add("long:" + value);
+        }
+
+        @Subscribe(code = INT, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+        public void onByte(Byte value) {
+            events.add("byte:" + value);
+        }
+
+        @Subscribe(code = DOUBLE, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+        public void onDouble(double value) {
+            events.add("double:" + value);
+        }
+
+        @Subscribe(code = DOUBLE, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+        public void onFloat(float value) {
+            events.add("float:" + value);
+        }
+
+        @Subscribe(code = DOUBLE, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+        public void onBoolean(boolean value) {
+            events.add("boolean:" + value);
+        }
+
+        public String getEvents() {
+            return events.toString();
+        }
+
+        public void clear() {
+            events.clear();
+        }
+    }
+
+    private static class ParamsFetcher {
+        public static final int EVENT = -20309;
+        private String name;
+        private int age;
+        private boolean isStudent;
+        @Subscribe(code = EVENT, scheduler = Subscribe.SCHEDULER_IO_POOL_THREAD)
+        private void onParam(String name, int age, boolean isStudent) {
+            this.name = name;
+            this.age = age;
+            this.isStudent = isStudent;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isStudent() {
+            return isStudent;
+        }
+    }
+}
+
+/**
+ * @author John Kenrinus Lee
+ * @version 2016-07-12
+ */
+class AmbiguousFetcher {
+    public static final int AMBIGUOUS = -99;
+    public static final int NULL = -999;
+
+    private Boolean fromString = null;
+    private String a = "a";
+    private String b = "b";
+
+    @Subscribe(code = AMBIGUOUS, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+    public void doSomething(String string) {
+        fromString = true;
+    }
+
+    @Subscribe(code = AMBIGUOUS, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+    public void doSomething(Integer integer) {
+        fromString = false;
+    }
+
+    @Subscribe(code = NULL, scheduler = Subscribe.SCHEDULER_CURRENT_THREAD)
+    public void doSomething(String a, String b) {
+        this.a = a;
+        this.b = b;
+    }
+
+    public Boolean getFromString() {
+        return fromString;
+    }
+
+    public void setFromString(Boolean fromString) {
+        this.fromString = fromString;
+    }
+
+    public String getA() {
+        return a;
+    }
+
+    public String getB() {
+        return b;
+    }
+}
@@ -0,0 +1,21 @@
+package org.rxbus;
+
+import rx.android.schedulers.AndroidSchedulers;
+
+/**
+ * The android adapter of RxBus, bind android schedulers to the platform independent bus.
+ * Call {@link #install(RxBus)} once (e.g. in Application#onCreate) before register any subscriber
+ * which use {@code org.rxbus.Subscribe#SCHEDULER_MAIN_THREAD}.
+ * @author John Kenrinus Lee
+ * @version 2026-10-17
+ */
+public final class AndroidRxBus {
+    private AndroidRxBus() {
+    }
+
+    /** bind android main looper scheduler as the main thread scheduler of the bus */
+    public static RxBus install(RxBus rxBus) {
+        rxBus.setMainThreadScheduler(AndroidSchedulers.mainThread());
+        return rxBus;
+    }
+}